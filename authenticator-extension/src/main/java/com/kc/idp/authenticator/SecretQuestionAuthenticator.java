@@ -32,15 +32,14 @@ import com.kc.idp.authenticator.credential.SecretQuestionCredentialModel;
 import org.keycloak.models.AuthenticatorConfigModel;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.RealmModel;
-import org.keycloak.models.UserCredentialModel;
 import org.keycloak.models.UserModel;
+import org.keycloak.sessions.AuthenticationSessionModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -50,6 +49,10 @@ public class SecretQuestionAuthenticator implements Authenticator, CredentialVal
 
     private static final Logger log = LoggerFactory.getLogger(SecretQuestionAuthenticator.class);
 
+    // remembered between the challenge and the answer, so neither request parses the credential twice
+    static final String CREDENTIAL_ID_NOTE = "secret_question.credential_id";
+    static final String QUESTION_NOTE = "secret_question.question";
+
     protected boolean hasCookie(AuthenticationFlowContext context) {
         Cookie cookie = context.getHttpRequest().getHttpHeaders().getCookies().get("SECRET_QUESTION_ANSWERED");
         boolean result = cookie != null;
@@ -65,17 +68,17 @@ public class SecretQuestionAuthenticator implements Authenticator, CredentialVal
             context.success();
             return;
         }
-        Optional<SecretQuestionCredentialModel> sqAuthModel = context.getUser().credentialManager().getCredentials()
-                .filter(m -> SecretQuestionCredentialModel.TYPE.equals(m.getType()))
-                .findFirst()
-                .map(SecretQuestionCredentialModel::createFromCredentialModel);
+        SecretQuestionCredentialModel sqAuthModel = getCredentialProvider(context.getSession()).getCredential(context.getUser());
 
-        if (sqAuthModel.isEmpty()) {
+        if (sqAuthModel == null) {
             context.failure(AuthenticationFlowError.CREDENTIAL_SETUP_REQUIRED);
             return;
         }
 
-        String question = sqAuthModel.get().getSecretQuestionCredentialData().getQuestion();
+        String question = sqAuthModel.getSecretQuestionCredentialData().getQuestion();
+        AuthenticationSessionModel authSession = context.getAuthenticationSession();
+        authSession.setAuthNote(CREDENTIAL_ID_NOTE, sqAuthModel.getId());
+        authSession.setAuthNote(QUESTION_NOTE, question);
         Response challenge = context.form()
                 .setAttribute("question", question)
                 .createForm("secret-question.ftl");
@@ -86,12 +89,11 @@ public class SecretQuestionAuthenticator implements Authenticator, CredentialVal
     public void action(AuthenticationFlowContext context) {
         boolean validated = validateAnswer(context);
         if (!validated) {
-            Optional<SecretQuestionCredentialModel> sqAuthModel = context.getUser().credentialManager().getCredentials()
-                    .filter(m -> SecretQuestionCredentialModel.TYPE.equals(m.getType()))
-                    .findFirst()
-                    .map(SecretQuestionCredentialModel::createFromCredentialModel);
-
-            String question = sqAuthModel.isPresent() ? sqAuthModel.get().getSecretQuestionCredentialData().getQuestion() : "";
+            String question = context.getAuthenticationSession().getAuthNote(QUESTION_NOTE);
+            if (question == null) {
+                SecretQuestionCredentialModel sqAuthModel = getCredentialProvider(context.getSession()).getCredential(context.getUser());
+                question = sqAuthModel != null ? sqAuthModel.getSecretQuestionCredentialData().getQuestion() : "";
+            }
             Response challenge =  context.form()
                     .setAttribute("question", question)
                     .setError("badSecret")
@@ -99,6 +101,8 @@ public class SecretQuestionAuthenticator implements Authenticator, CredentialVal
             context.failureChallenge(AuthenticationFlowError.INVALID_CREDENTIALS, challenge);
             return;
         }
+        context.getAuthenticationSession().removeAuthNote(CREDENTIAL_ID_NOTE);
+        context.getAuthenticationSession().removeAuthNote(QUESTION_NOTE);
         setCookie(context);
         context.success();
     }
@@ -123,14 +127,19 @@ public class SecretQuestionAuthenticator implements Authenticator, CredentialVal
     protected boolean validateAnswer(AuthenticationFlowContext context) {
         MultivaluedMap<String, String> formData = context.getHttpRequest().getDecodedFormParameters();
         String secret = formData.getFirst("secret_answer");
+        if (secret == null) {
+            return false;
+        }
         String credentialId = formData.getFirst("credentialId");
         if (credentialId == null || credentialId.isEmpty()) {
-            credentialId = getCredentialProvider(context.getSession())
-                    .getDefaultCredential(context.getSession(), context.getRealm(), context.getUser()).getId();
+            credentialId = context.getAuthenticationSession().getAuthNote(CREDENTIAL_ID_NOTE);
         }
 
-        UserCredentialModel input = new UserCredentialModel(credentialId, getType(context.getSession()), secret);
-        return getCredentialProvider(context.getSession()).isValid(context.getRealm(), context.getUser(), input);
+        SecretQuestionCredentialProvider provider = getCredentialProvider(context.getSession());
+        SecretQuestionCredentialModel credential = credentialId != null && !credentialId.isEmpty()
+                ? provider.getCredential(context.getUser(), credentialId)
+                : provider.getCredential(context.getUser());
+        return credential != null && provider.isValid(credential, secret);
     }
 
     @Override
@@ -56,9 +56,37 @@ public class SecretQuestionCredentialProvider implements CredentialProvider<Secr
         if (challengeResponse == null) {
             return false;
         }
-        CredentialModel credentialModel = user.credentialManager().getStoredCredentialById(input.getCredentialId());
-        SecretQuestionCredentialModel sqcm = getCredentialFromModel(credentialModel);
-        return sqcm.getSecretQuestionSecretData().getAnswer().equals(challengeResponse);
+        SecretQuestionCredentialModel sqcm = getCredential(user, input.getCredentialId());
+        return sqcm != null && isValid(sqcm, challengeResponse);
+    }
+
+    /**
+     * Checks an answer against an already parsed credential, without another store lookup.
+     */
+    public boolean isValid(SecretQuestionCredentialModel credential, String answer) {
+        return answer != null && credential.getSecretQuestionSecretData().getAnswer().equals(answer);
+    }
+
+    /**
+     * @return the user's secret question, looked up by type, or {@code null} if none is set up
+     */
+    public SecretQuestionCredentialModel getCredential(UserModel user) {
+        return user.credentialManager().getStoredCredentialsByTypeStream(getType())
+                .findFirst()
+                .map(this::getCredentialFromModel)
+                .orElse(null);
+    }
+
+    /**
+     * @return the user's secret question with this id, or {@code null} if it does not exist
+     * or is of another type
+     */
+    public SecretQuestionCredentialModel getCredential(UserModel user, String credentialId) {
+        CredentialModel credentialModel = user.credentialManager().getStoredCredentialById(credentialId);
+        if (credentialModel == null || !getType().equals(credentialModel.getType())) {
+            return null;
+        }
+        return getCredentialFromModel(credentialModel);
     }
 
     @Override
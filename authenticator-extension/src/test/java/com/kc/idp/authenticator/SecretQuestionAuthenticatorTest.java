@@ -0,0 +1,275 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kc.idp.authenticator;
+
+import com.kc.idp.authenticator.credential.SecretQuestionCredentialModel;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.keycloak.authentication.AuthenticationFlowContext;
+import org.keycloak.authentication.AuthenticationFlowError;
+import org.keycloak.credential.CredentialInput;
+import org.keycloak.credential.CredentialModel;
+import org.keycloak.credential.CredentialProvider;
+import org.keycloak.forms.login.LoginFormsProvider;
+import org.keycloak.http.HttpRequest;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.SubjectCredentialManager;
+import org.keycloak.models.UserModel;
+import org.keycloak.sessions.AuthenticationSessionModel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the credential store lookups and the JSON parses of the secret question in the
+ * challenge request and in the answer request of {@link SecretQuestionAuthenticator}.
+ */
+public class SecretQuestionAuthenticatorTest {
+
+    private static final String CREDENTIAL_ID = "credential-1";
+    private static final String QUESTION = "Name of your first pet?";
+    private static final String ANSWER = "Rex";
+
+    private CountingCredentialManager credentialManager;
+    private CountingCredentialProvider provider;
+    private AuthenticationFlowContext context;
+    private AuthenticationSessionModel authSession;
+    private MultivaluedMap<String, String> formData;
+    private SecretQuestionAuthenticator authenticator;
+
+    @Before
+    public void setUp() {
+        SecretQuestionCredentialModel stored = SecretQuestionCredentialModel.createSecretQuestion(QUESTION, ANSWER);
+        stored.setId(CREDENTIAL_ID);
+        credentialManager = new CountingCredentialManager(stored);
+
+        UserModel user = mock(UserModel.class);
+        when(user.credentialManager()).thenReturn(credentialManager);
+        KeycloakSession session = mock(KeycloakSession.class);
+        provider = new CountingCredentialProvider(session);
+        when(session.getProvider(CredentialProvider.class, SecretQuestionCredentialProviderFactory.PROVIDER_ID))
+                .thenReturn(provider);
+
+        HttpHeaders headers = mock(HttpHeaders.class);
+        when(headers.getCookies()).thenReturn(Collections.emptyMap());
+        formData = new MultivaluedHashMap<>();
+        HttpRequest httpRequest = mock(HttpRequest.class);
+        when(httpRequest.getHttpHeaders()).thenReturn(headers);
+        when(httpRequest.getDecodedFormParameters()).thenReturn(formData);
+
+        authSession = mock(AuthenticationSessionModel.class);
+        context = mock(AuthenticationFlowContext.class);
+        when(context.getSession()).thenReturn(session);
+        when(context.getUser()).thenReturn(user);
+        when(context.getHttpRequest()).thenReturn(httpRequest);
+        when(context.getAuthenticationSession()).thenReturn(authSession);
+        when(context.form()).thenReturn(mock(LoginFormsProvider.class, RETURNS_SELF));
+
+        authenticator = spy(new SecretQuestionAuthenticator());
+        doNothing().when(authenticator).setCookie(context);
+    }
+
+    @Test
+    public void challengeLooksUpAndParsesTheQuestionOnce() {
+        authenticator.authenticate(context);
+
+        assertEquals(1, credentialManager.lookupsByType);
+        assertEquals(0, credentialManager.lookupsById);
+        assertEquals(0, credentialManager.fullScans);
+        assertEquals(1, provider.parses);
+        verify(authSession).setAuthNote(SecretQuestionAuthenticator.CREDENTIAL_ID_NOTE, CREDENTIAL_ID);
+        verify(authSession).setAuthNote(SecretQuestionAuthenticator.QUESTION_NOTE, QUESTION);
+    }
+
+    @Test
+    public void rightAnswerLooksUpAndParsesTheQuestionOnce() {
+        when(authSession.getAuthNote(SecretQuestionAuthenticator.CREDENTIAL_ID_NOTE)).thenReturn(CREDENTIAL_ID);
+        formData.putSingle("secret_answer", ANSWER);
+
+        authenticator.action(context);
+
+        assertEquals(0, credentialManager.lookupsByType);
+        assertEquals(1, credentialManager.lookupsById);
+        assertEquals(0, credentialManager.fullScans);
+        assertEquals(1, provider.parses);
+        verify(context).success();
+    }
+
+    @Test
+    public void wrongAnswerLooksUpAndParsesTheQuestionOnce() {
+        when(authSession.getAuthNote(SecretQuestionAuthenticator.CREDENTIAL_ID_NOTE)).thenReturn(CREDENTIAL_ID);
+        when(authSession.getAuthNote(SecretQuestionAuthenticator.QUESTION_NOTE)).thenReturn(QUESTION);
+        formData.putSingle("secret_answer", "Max");
+
+        authenticator.action(context);
+
+        assertEquals(0, credentialManager.lookupsByType);
+        assertEquals(1, credentialManager.lookupsById);
+        assertEquals(0, credentialManager.fullScans);
+        assertEquals(1, provider.parses);
+        verify(context).failureChallenge(any(AuthenticationFlowError.class), any());
+        verify(context, never()).success();
+    }
+
+    @Test
+    public void answerWithoutCredentialIdFallsBackToTheLookupByType() {
+        formData.putSingle("secret_answer", ANSWER);
+
+        authenticator.action(context);
+
+        assertEquals(1, credentialManager.lookupsByType);
+        assertEquals(0, credentialManager.lookupsById);
+        assertEquals(1, provider.parses);
+        verify(context).success();
+    }
+
+    /**
+     * Counts every parse of a stored credential into a {@link SecretQuestionCredentialModel}.
+     */
+    private static class CountingCredentialProvider extends SecretQuestionCredentialProvider {
+
+        int parses;
+
+        CountingCredentialProvider(KeycloakSession session) {
+            super(session);
+        }
+
+        @Override
+        public SecretQuestionCredentialModel getCredentialFromModel(CredentialModel model) {
+            parses++;
+            return super.getCredentialFromModel(model);
+        }
+    }
+
+    /**
+     * Holds one stored credential and counts the lookups, everything else is unsupported.
+     */
+    private static class CountingCredentialManager implements SubjectCredentialManager {
+
+        private final CredentialModel stored;
+        int lookupsByType;
+        int lookupsById;
+        int fullScans;
+
+        CountingCredentialManager(CredentialModel stored) {
+            this.stored = stored;
+        }
+
+        @Override
+        public Stream<CredentialModel> getStoredCredentialsByTypeStream(String type) {
+            lookupsByType++;
+            return Stream.of(stored).filter(credential -> credential.getType().equals(type));
+        }
+
+        @Override
+        public CredentialModel getStoredCredentialById(String id) {
+            lookupsById++;
+            return stored.getId().equals(id) ? stored : null;
+        }
+
+        @Override
+        public Stream<CredentialModel> getStoredCredentialsStream() {
+            fullScans++;
+            return Stream.of(stored);
+        }
+
+        @Override
+        public boolean isValid(List<CredentialInput> inputs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean updateCredential(CredentialInput input) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateStoredCredential(CredentialModel cred) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CredentialModel createStoredCredential(CredentialModel cred) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean removeStoredCredentialById(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CredentialModel getStoredCredentialByNameAndType(String name, String type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean moveStoredCredentialTo(String id, String newPreviousCredentialId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateCredentialLabel(String credentialId, String credentialLabel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void disableCredentialType(String credentialType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<String> getDisableableCredentialTypesStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isConfiguredFor(String type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isConfiguredLocally(String type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Stream<String> getConfiguredUserStorageCredentialTypesStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CredentialModel createCredentialThroughProvider(CredentialModel model) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
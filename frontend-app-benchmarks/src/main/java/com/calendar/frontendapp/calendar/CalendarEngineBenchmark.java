@@ -0,0 +1,69 @@
+package com.calendar.frontendapp.calendar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Week and month views of {@link CalendarEngine}, on a fixed clock so that runs compare.
+ * The {@code Concurrent} variants share one engine between eight threads, each asking for
+ * a random week or month of 2000 to 2049, as many users browsing their calendars would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarEngineBenchmark {
+
+    private CalendarEngine engine;
+
+    @Setup
+    public void setUp() {
+        engine = new CalendarEngine(Clock.fixed(Instant.parse("2026-10-19T09:00:00Z"), ZoneOffset.UTC), 366);
+    }
+
+    @Benchmark
+    public CalendarWeek currentWeek() {
+        return engine.currentWeek();
+    }
+
+    @Benchmark
+    public CalendarWeek week() {
+        return engine.week(2026, 43);
+    }
+
+    @Benchmark
+    public CalendarRange month() {
+        return engine.month(2026, 10);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CalendarWeek weekConcurrent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return engine.week(2000 + random.nextInt(50), 1 + random.nextInt(52));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CalendarRange monthConcurrent() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return engine.month(2000 + random.nextInt(50), 1 + random.nextInt(12));
+    }
+}
@@ -0,0 +1,117 @@
+package com.calendar.frontendapp.calendar;
+
+import com.calendar.frontendapp.calendar.CalendarResponseCache.CachedResponse;
+import com.calendar.frontendapp.event.EventStore;
+import com.calendar.frontendapp.event.NewCalendarEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current week of a user with 20 events, served through {@link CalendarViews} the way
+ * {@code /api/calendar} serves it, in every {@link CalendarFormat}, including the conditional
+ * request check and the body write on a mock exchange. {@code miss} drops the user's views
+ * first, so every call builds and serializes the week as it would without the cache.
+ * {@code hit} serves the cached body and {@code notModified} answers a request whose
+ * {@code If-None-Match} carries the cached ETag, so no body is written at all.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CalendarResponseCacheBenchmark {
+
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final AcceptHeaderLocaleContextResolver LOCALE_RESOLVER = new AcceptHeaderLocaleContextResolver();
+    private static final WebSessionManager SESSION_MANAGER = new DefaultWebSessionManager();
+
+    private static final String USER_ID = "user-1";
+    private static final Instant WEEK_START = Instant.parse("2026-10-19T00:00:00Z");
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private CalendarFormat format;
+
+    private CalendarResponseCache cache;
+    private CalendarViews views;
+    private String etag;
+
+    @Setup
+    public void setUp() {
+        CalendarEngine engine = new CalendarEngine(Clock.fixed(Instant.parse("2026-10-21T09:00:00Z"), ZoneOffset.UTC), 366);
+        EventStore eventStore = new EventStore();
+        for (int i = 0; i < 20; i++) {
+            Instant start = WEEK_START.plus(Duration.ofHours(8 + (i % 5) * 2)).plus(Duration.ofDays(i / 4));
+            eventStore.add(USER_ID, new NewCalendarEvent("Meeting " + i, start, start.plus(Duration.ofHours(1))));
+        }
+        // configured like the application's object mapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Map<CalendarFormat, ObjectMapper> objectMappers = new EnumMap<>(CalendarFormat.class);
+        objectMappers.put(CalendarFormat.JSON, objectMapper);
+        objectMappers.put(CalendarFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+        objectMappers.put(CalendarFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+        cache = new CalendarResponseCache(objectMappers, Duration.ofMinutes(10), 50000);
+        views = new CalendarViews(engine, eventStore, cache);
+        etag = views.currentWeek(USER_ID, format).etag();
+    }
+
+    @Benchmark
+    public ServerWebExchange miss() {
+        cache.evictUser(USER_ID);
+        return serve(MockServerHttpRequest.get("/api/calendar").build());
+    }
+
+    @Benchmark
+    public ServerWebExchange hit() {
+        return serve(MockServerHttpRequest.get("/api/calendar").build());
+    }
+
+    @Benchmark
+    public ServerWebExchange notModified() {
+        return serve(MockServerHttpRequest.get("/api/calendar").ifNoneMatch(etag).build());
+    }
+
+    /**
+     * Writes the cached body unless the request's {@code If-None-Match} matches its ETag.
+     */
+    private ServerWebExchange serve(MockServerHttpRequest request) {
+        CachedResponse cached = views.currentWeek(USER_ID, format);
+        ServerWebExchange exchange = new DefaultServerWebExchange(request, new MockServerHttpResponse(), SESSION_MANAGER,
+                CODECS, LOCALE_RESOLVER);
+        if (!exchange.checkNotModified(cached.etag())) {
+            exchange.getResponse().writeWith(Mono.just(DefaultDataBufferFactory.sharedInstance.wrap(cached.body()))).block();
+        }
+        return exchange;
+    }
+}
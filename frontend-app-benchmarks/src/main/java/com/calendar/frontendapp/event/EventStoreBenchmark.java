@@ -0,0 +1,90 @@
+package com.calendar.frontendapp.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventStore} holding {@code events} events spread evenly over {@code users} users,
+ * each one to three hours long and starting at a random hour of 2026. Queries ask for the
+ * events of a random user in a random week; writes add an event to a random user and
+ * remove it again, so the store keeps its size. {@code findWeekConcurrent} runs the query
+ * from four threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EventStoreBenchmark {
+
+    private static final Instant YEAR_START = Instant.parse("2026-01-01T00:00:00Z");
+    private static final int HOURS_IN_YEAR = 365 * 24;
+
+    @Param("1000000")
+    private int events;
+
+    @Param("10000")
+    private int users;
+
+    private EventStore store;
+    private String[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new EventStore();
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = "user-" + i;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < events; i++) {
+            Instant start = YEAR_START.plus(Duration.ofHours(random.nextInt(HOURS_IN_YEAR)));
+            store.add(userIds[i % users], new NewCalendarEvent("Event " + i, start, start.plus(Duration.ofHours(1 + random.nextInt(3)))));
+        }
+    }
+
+    @Benchmark
+    public List<CalendarEvent> findWeek() {
+        return find();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<CalendarEvent> findWeekConcurrent() {
+        return find();
+    }
+
+    @Benchmark
+    public boolean addAndRemove() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String userId = userIds[random.nextInt(users)];
+        Instant start = YEAR_START.plus(Duration.ofHours(random.nextInt(HOURS_IN_YEAR)));
+        CalendarEvent event = store.add(userId, new NewCalendarEvent("Added", start, start.plus(Duration.ofHours(1))));
+        return store.remove(userId, event.id());
+    }
+
+    private List<CalendarEvent> find() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant from = YEAR_START.plus(Duration.ofDays(7L * random.nextInt(52)));
+        return store.find(userIds[random.nextInt(users)], from, from.plus(Duration.ofDays(7)));
+    }
+}
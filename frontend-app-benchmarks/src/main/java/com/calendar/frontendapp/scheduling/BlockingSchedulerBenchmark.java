@@ -0,0 +1,76 @@
+package com.calendar.frontendapp.scheduling;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent logins that each make one blocking call, such as a key file read or a JDBC
+ * session lookup, on the blocking scheduler. One operation completes all of them, so the
+ * score is the time until the last login finished.
+ * <p>
+ * {@code virtual-threads} needs a Java 21 runtime, on older JVMs its setup fails and JMH
+ * skips it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BlockingSchedulerBenchmark {
+
+    @Param({"bounded-elastic", "virtual-threads"})
+    private String scheduler;
+
+    @Param("10000")
+    private int logins;
+
+    @Param("5")
+    private int blockingMillis;
+
+    private Scheduler blockingScheduler;
+
+    @Setup
+    public void setUp() {
+        blockingScheduler = switch (scheduler) {
+            case "bounded-elastic" -> BlockingSchedulers.boundedElastic("benchmark");
+            case "virtual-threads" -> BlockingSchedulers.virtualThreads("benchmark")
+                    .orElseThrow(() -> new IllegalStateException("Virtual threads need Java 21, running on Java "
+                            + Runtime.version().feature()));
+            default -> throw new IllegalArgumentException("Unknown scheduler " + scheduler);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        blockingScheduler.dispose();
+    }
+
+    @Benchmark
+    public Long concurrentLogins() {
+        return Flux.range(0, logins)
+                .flatMap(login -> Mono.fromCallable(this::blockingCall).subscribeOn(blockingScheduler), logins)
+                .count()
+                .block();
+    }
+
+    private Integer blockingCall() throws InterruptedException {
+        Thread.sleep(blockingMillis);
+        return blockingMillis;
+    }
+}
@@ -0,0 +1,102 @@
+package com.calendar.frontendapp.security;
+
+import com.calendar.frontendapp.metrics.LoginMetrics;
+import com.calendar.frontendapp.security.oauth2.AccessToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.WebSession;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.InMemoryWebSessionStore;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SessionAuthenticationFilter} with a decoder that returns a prepared token, so only
+ * the filter itself is measured. Every operation builds a fresh exchange around a shared
+ * session and codec configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionAuthenticationFilterBenchmark {
+
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final AcceptHeaderLocaleContextResolver LOCALE_RESOLVER = new AcceptHeaderLocaleContextResolver();
+
+    private Jwt jwt;
+    private SessionAuthenticationFilter filter;
+    private WebSessionManager sessionManager;
+
+    @Setup
+    public void setUp() {
+        jwt = Jwt.withTokenValue("access-token")
+                .header("alg", "RS256")
+                .subject("0c5c8c3e-7d2f-4c41-9a57-1f0c1e7c2b11")
+                .claim("name", "Jane Doe")
+                .claim("preferred_username", "jane")
+                .claim("resource_access", Map.of("frontend-app", Map.of("roles", List.of("my-role", "viewer"))))
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+        filter = new SessionAuthenticationFilter(token -> Mono.just(jwt), "my-role",
+                List.of("/assets/**", "/favicon.ico", "/actuator/health", "/actuator/health/**"), LoginMetrics.DISABLED);
+        WebSession session = new InMemoryWebSessionStore().createWebSession().block();
+        new AccessToken("access-token", "DPoP", Instant.now().plusSeconds(3600)).storeIn(session);
+        Mono<WebSession> sessionMono = Mono.just(session);
+        sessionManager = exchange -> sessionMono;
+    }
+
+    @Benchmark
+    public ServerWebExchange filterSession() {
+        ServerWebExchange exchange = exchange("/home");
+        filter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange filterFastPath() {
+        ServerWebExchange exchange = exchange("/assets/css/home.3f2a9c1b7d40.css");
+        filter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    private ServerWebExchange exchange(String path) {
+        return new DefaultServerWebExchange(MockServerHttpRequest.get(path).build(), new MockServerHttpResponse(),
+                sessionManager, CODECS, LOCALE_RESOLVER);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return SessionAuthenticationFilter.extractUsername(jwt);
+    }
+
+    @Benchmark
+    public List<String> extractRoles() {
+        return SessionAuthenticationFilter.extractRoles(jwt);
+    }
+}
@@ -0,0 +1,102 @@
+package com.calendar.frontendapp.security.oauth2;
+
+import com.calendar.frontendapp.security.oauth2.dpop.DPoPService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-login work of the authorization code flow: state, PKCE, the authorization URL,
+ * the token request, its DPoP proof and parsing the token response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OAuthBenchmark {
+
+    private static final String AUTHORIZATION_URI = "https://kc.idp.com:8443/realms/IBM/protocol/openid-connect/auth";
+    private static final String TOKEN_URI = "https://kc.idp.com:8443/realms/IBM/protocol/openid-connect/token";
+    private static final String REDIRECT_URI = "http://localhost:8081/oauth2/callback";
+
+    private OAuth2Properties properties;
+    private DPoPService dPoPService;
+    private String codeVerifier;
+    private String codeChallenge;
+    private String state;
+    private byte[] tokenResponse;
+
+    @Setup
+    public void setUp() {
+        properties = OAuth2Properties.builder()
+                .clientId("frontend-app")
+                .clientSecret("your-client-secret")
+                .redirectUri(REDIRECT_URI)
+                .scope("openid")
+                .authorizationUri(AUTHORIZATION_URI)
+                .tokenUri(TOKEN_URI)
+                .dpopEnabled(true)
+                .build();
+        dPoPService = new DPoPService();
+        codeVerifier = OAuthUtil.generateCodeVerifier();
+        codeChallenge = OAuthUtil.generateCodeChallenge(codeVerifier);
+        state = OAuthUtil.generateState("home");
+        String token = "eyJhbGciOiJSUzI1NiIsInR5cCI6IkpXVCJ9." + "e".repeat(900) + "." + "s".repeat(342);
+        tokenResponse = ("{\"access_token\":\"" + token + "\",\"expires_in\":300,\"refresh_expires_in\":1800,"
+                + "\"refresh_token\":\"" + token + "\",\"token_type\":\"DPoP\",\"id_token\":\"" + token + "\","
+                + "\"not-before-policy\":0,\"session_state\":\"4d1c7a52-9c1e-4a8e-b5b1-2f0f3c9e6a10\","
+                + "\"scope\":\"openid profile email\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String generateState() {
+        return OAuthUtil.generateState("home");
+    }
+
+    @Benchmark
+    public String generateCodeVerifier() {
+        return OAuthUtil.generateCodeVerifier();
+    }
+
+    @Benchmark
+    public String generateCodeChallenge() {
+        return OAuthUtil.generateCodeChallenge(codeVerifier);
+    }
+
+    @Benchmark
+    public String buildAuthorizationUrl() {
+        return OAuthUtil.buildAuthorizationUrl(AUTHORIZATION_URI, "frontend-app", REDIRECT_URI, "openid",
+                state, codeChallenge, Optional.of("gold"));
+    }
+
+    @Benchmark
+    public OAuth2AccessTokenRequest tokenRequest() {
+        return new OAuth2AccessTokenRequest().from(properties, "authorization-code", codeVerifier);
+    }
+
+    @Benchmark
+    public OAuth2AccessTokenResponse tokenResponse() throws IOException {
+        return OAuth2AccessTokenResponse.parse(new ByteArrayInputStream(tokenResponse), Instant.EPOCH);
+    }
+
+    @Benchmark
+    public String generateDPoP() {
+        return dPoPService.generateDPoP("POST", TOKEN_URI, null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.calendar.frontendapp.security.oauth2.introspection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.core.DefaultOAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CachingOpaqueTokenIntrospector} in front of a stub introspection endpoint that
+ * answers after {@code endpointLatencyMs}. Requests pick a token uniformly from
+ * {@code tokens}, one in ten of them inactive, so with more tokens than the 10000 cache
+ * entries part of the lookups miss. Every token is looked up once in the setup, so the
+ * run starts from a full cache. The sample mode reports the latency percentiles, the
+ * teardown prints the hit ratio of the measured lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachingOpaqueTokenIntrospectorBenchmark {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    @Param({"5000", "20000"})
+    private int tokens;
+
+    @Param("2")
+    private int endpointLatencyMs;
+
+    private CachingOpaqueTokenIntrospector introspector;
+    private long setupHits;
+    private long setupMisses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Duration latency = Duration.ofMillis(endpointLatencyMs);
+        ReactiveOpaqueTokenIntrospector endpoint = token -> Mono.delay(latency).then(Mono.defer(() -> {
+            if (token.hashCode() % 10 == 0) {
+                return Mono.error(new BadOpaqueTokenException("Provided token isn't active"));
+            }
+            OAuth2AuthenticatedPrincipal principal = new DefaultOAuth2AuthenticatedPrincipal(token, Map.of(
+                    OAuth2TokenIntrospectionClaimNames.ACTIVE, true,
+                    OAuth2TokenIntrospectionClaimNames.SUB, token,
+                    OAuth2TokenIntrospectionClaimNames.EXP, Instant.now().plusSeconds(3600)), List.of());
+            return Mono.just(principal);
+        }));
+        introspector = new CachingOpaqueTokenIntrospector(endpoint, Duration.ofMinutes(5), Duration.ofSeconds(10),
+                MAX_ENTRIES);
+        Flux.range(0, tokens)
+                .flatMap(i -> introspector.introspect("token-" + i).onErrorResume(ex -> Mono.empty()), 256)
+                .blockLast();
+        setupHits = introspector.getHitCount();
+        setupMisses = introspector.getMissCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void printHitRatio() {
+        long hits = introspector.getHitCount() - setupHits;
+        long total = hits + introspector.getMissCount() - setupMisses;
+        System.out.printf("%n%d tokens: hit ratio %.3f over %d lookups, %d cached%n",
+                tokens, (double) hits / total, total, introspector.size());
+    }
+
+    @Benchmark
+    public Object introspect() {
+        String token = "token-" + ThreadLocalRandom.current().nextInt(tokens);
+        return introspector.introspect(token)
+                .onErrorResume(BadOpaqueTokenException.class, ex -> Mono.empty())
+                .block();
+    }
+}
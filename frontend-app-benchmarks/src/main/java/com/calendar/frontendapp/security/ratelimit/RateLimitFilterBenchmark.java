@@ -0,0 +1,110 @@
+package com.calendar.frontendapp.security.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.WebSession;
+import org.springframework.web.server.adapter.DefaultServerWebExchange;
+import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
+import org.springframework.web.server.session.InMemoryWebSessionStore;
+import org.springframework.web.server.session.WebSessionManager;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link RateLimitFilter} per request. {@code unlimitedPath} passes a route the
+ * filter does not throttle and is the baseline for {@code limitedPath} (keyed by IP) and
+ * {@code limitedPathBySession}. The rate is high enough that no request is rejected, and
+ * each request comes from one of 10000 client addresses. {@code tryAcquire} measures the
+ * limiter alone, from four threads that share the buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+    private static final ServerCodecConfigurer CODECS = ServerCodecConfigurer.create();
+    private static final AcceptHeaderLocaleContextResolver LOCALE_RESOLVER = new AcceptHeaderLocaleContextResolver();
+
+    private static final int CLIENTS = 10000;
+
+    private TokenBucketRateLimiter rateLimiter;
+    private RateLimitFilter byAddress;
+    private RateLimitFilter bySession;
+    private InetSocketAddress[] addresses;
+    private String[] keys;
+    private WebSessionManager sessionManager;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new TokenBucketRateLimiter(1_000_000_000, 1000, 100000);
+        Set<String> paths = Set.of("/oauth2/authorize", "/oauth2/callback");
+        byAddress = new RateLimitFilter(rateLimiter, paths, false);
+        bySession = new RateLimitFilter(rateLimiter, paths, true);
+        addresses = new InetSocketAddress[CLIENTS];
+        keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            addresses[i] = new InetSocketAddress("10.0." + (i / 256) + "." + (i % 256), 40000);
+            keys[i] = addresses[i].getAddress().getHostAddress();
+        }
+        WebSession session = new InMemoryWebSessionStore().createWebSession().block();
+        session.start();
+        Mono<WebSession> sessionMono = Mono.just(session);
+        sessionManager = exchange -> sessionMono;
+    }
+
+    @Benchmark
+    public ServerWebExchange unlimitedPath() {
+        ServerWebExchange exchange = exchange("/home");
+        byAddress.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange limitedPath() {
+        ServerWebExchange exchange = exchange("/oauth2/authorize");
+        byAddress.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange limitedPathBySession() {
+        ServerWebExchange exchange = exchange("/oauth2/authorize");
+        bySession.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquire() {
+        return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+    }
+
+    private ServerWebExchange exchange(String path) {
+        InetSocketAddress address = addresses[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return new DefaultServerWebExchange(MockServerHttpRequest.post(path).remoteAddress(address).build(),
+                new MockServerHttpResponse(), sessionManager, CODECS, LOCALE_RESOLVER);
+    }
+}
@@ -0,0 +1,87 @@
+package com.calendar.frontendapp.security.session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.server.WebSession;
+import org.springframework.web.server.session.InMemoryWebSessionStore;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SessionRegistry} holding a million sessions. Each revocation first registers a
+ * fresh session, so the registry keeps its size over the run. {@code purgeExpired} is the
+ * periodic sweep over all sessions, none of which has expired. The setup prints the heap
+ * retained per registered session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SessionRegistryBenchmark {
+
+    @Param("1000000")
+    private int sessions;
+
+    private final InMemoryWebSessionStore store = new InMemoryWebSessionStore();
+    private SessionRegistry registry;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = usedHeap();
+        registry = new SessionRegistry(Duration.ofMinutes(1));
+        for (int i = 0; i < sessions; i++) {
+            register(i);
+        }
+        next = sessions;
+        long after = usedHeap();
+        System.out.printf("%n%d sessions registered, %d bytes retained per session (session objects included)%n",
+                registry.size(), (after - before) / sessions);
+    }
+
+    @Benchmark
+    public long revokeBySid() {
+        long id = next++;
+        register(id);
+        return registry.revokeBySid("sid-" + id).block();
+    }
+
+    @Benchmark
+    public long revokeBySubject() {
+        long id = next++;
+        register(id);
+        return registry.revokeBySubject("sub-" + id).block();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int purgeExpired() {
+        return registry.purgeExpired();
+    }
+
+    private void register(long id) {
+        WebSession session = store.createWebSession().block();
+        registry.register(session, "sid-" + id, "sub-" + id);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
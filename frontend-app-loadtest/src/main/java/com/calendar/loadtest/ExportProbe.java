@@ -0,0 +1,125 @@
+package com.calendar.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams a long range from {@code /api/calendar/export} and reports, per stream, the time to
+ * the first byte of the body, the total time and the size. Meanwhile it samples the heap of
+ * the application from its Prometheus endpoint, so a heap that grows with the range shows.
+ * A slow client is simulated by pausing after every line.
+ * <p>
+ * Options: {@code --target} (http://localhost:8081), {@code --from} (1926-01-01) and
+ * {@code --to} (2025-12-31), {@code --accept} (application/x-ndjson), {@code --streams}
+ * run at the same time (1), {@code --read-delay} after every line (0), {@code --metrics}
+ * (the Prometheus endpoint on the management port of the target) and
+ * {@code --sample-interval} (100ms).
+ */
+public class ExportProbe {
+
+    private final URI target;
+
+    private volatile String accessToken;
+
+    public ExportProbe(URI target) {
+        this.target = target;
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Args args = new Args(arguments);
+        URI target = URI.create(args.string("target", "http://localhost:8081"));
+        ExportProbe probe = new ExportProbe(target);
+        URI metrics = URI.create(args.string("metrics", HeapSampler.metricsOf(target).toString()));
+        String from = args.string("from", "1926-01-01");
+        String to = args.string("to", "2025-12-31");
+        int streams = args.integer("streams", 1);
+        Duration readDelay = args.duration("read-delay", Duration.ZERO);
+
+        // the API needs the session cookie next to the access token
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        probe.accessToken = new LoginLoadGenerator(target, 0, "gold", "calendar").login(LoginLoadGenerator.newClient(cookies));
+        if (probe.accessToken == null) {
+            throw new IllegalStateException("Login against " + target + " failed");
+        }
+
+        HeapSampler sampler = new HeapSampler(metrics);
+        long heapBefore = sampler.heapUsed();
+        sampler.start(args.duration("sample-interval", Duration.ofMillis(100)));
+
+        System.out.printf("%d stream(s) of %s..%s as %s, %dms pause per line%n",
+                streams, from, to, args.string("accept", "application/x-ndjson"), readDelay.toMillis());
+        ExecutorService executor = Executors.newFixedThreadPool(streams);
+        try {
+            List<Future<Result>> results = new ArrayList<>();
+            for (int i = 0; i < streams; i++) {
+                // one client per stream, so every stream has a connection of its own
+                HttpClient client = LoginLoadGenerator.newClient(cookies);
+                results.add(executor.submit(() -> probe.export(client, from, to, args.string("accept", "application/x-ndjson"), readDelay)));
+            }
+            for (Future<Result> result : results) {
+                System.out.println(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            sampler.close();
+        }
+        System.out.printf(Locale.ROOT, "heap used: %.1f MB before, %s during, %.1f MB after%n",
+                heapBefore / 1e6, sampler, sampler.heapUsed() / 1e6);
+    }
+
+    Result export(HttpClient client, String from, String to, String accept, Duration readDelay) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(target.resolve("/api/calendar/export?from=" + from + "&to=" + to))
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Accept", accept)
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Export answered " + response.statusCode());
+        }
+        long firstByte = 0;
+        long bytes = 0;
+        long lines = 0;
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (bytes == 0) {
+                    firstByte = System.nanoTime() - start;
+                }
+                bytes += read;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                        if (!readDelay.isZero()) {
+                            Thread.sleep(readDelay.toMillis());
+                        }
+                    }
+                }
+            }
+        }
+        return new Result(firstByte, System.nanoTime() - start, bytes, lines);
+    }
+
+    record Result(long firstByteNanos, long totalNanos, long bytes, long lines) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "first byte after %.1f ms, %d lines (%.1f MB) in %.1f s",
+                    firstByteNanos / 1e6, lines, bytes / 1e6, totalNanos / 1e9);
+        }
+    }
+}
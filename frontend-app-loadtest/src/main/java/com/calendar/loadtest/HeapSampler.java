@@ -0,0 +1,138 @@
+package com.calendar.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the heap in use of the application from its Prometheus endpoint, summed over all
+ * pools, and keeps the lowest and highest sample. The live heap is read after a full
+ * collection when the application runs on this machine, otherwise the lowest sample over a
+ * window approximates it as long as the application allocates enough to collect.
+ */
+class HeapSampler implements AutoCloseable {
+
+    private static final String HEAP_USED = "jvm_memory_used_bytes{area=\"heap\"";
+
+    private final URI metrics;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "heap-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+
+    HeapSampler(URI metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return the Prometheus endpoint of {@code frontend-app} at {@code target}, on its
+     *         management port
+     */
+    static URI metricsOf(URI target) {
+        return URI.create(target.getScheme() + "://" + target.getHost() + ":8082/actuator/prometheus");
+    }
+
+    void start(Duration interval) {
+        executor.scheduleAtFixedRate(() -> record(heapUsed()), 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param pid the process of the application, to collect with {@code jcmd}, or 0
+     * @return the heap in use after a full collection or, without {@code pid}, the lowest
+     *         heap sampled during {@code window}
+     */
+    long liveHeap(long pid, Duration window) throws IOException, InterruptedException {
+        if (pid <= 0) {
+            return minOver(window, Duration.ofMillis(100));
+        }
+        Process jcmd = new ProcessBuilder("jcmd", Long.toString(pid), "GC.run")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        if (jcmd.waitFor() != 0) {
+            throw new IllegalStateException("jcmd " + pid + " GC.run failed");
+        }
+        return heapUsed();
+    }
+
+    /**
+     * @return the lowest heap sampled during {@code window}, or -1 when no sample succeeded
+     */
+    private long minOver(Duration window, Duration interval) throws InterruptedException {
+        long lowest = Long.MAX_VALUE;
+        long deadline = System.nanoTime() + window.toNanos();
+        while (System.nanoTime() < deadline) {
+            long heapUsed = heapUsed();
+            if (heapUsed >= 0) {
+                lowest = Math.min(lowest, heapUsed);
+            }
+            Thread.sleep(interval.toMillis());
+        }
+        return lowest == Long.MAX_VALUE ? -1 : lowest;
+    }
+
+    /**
+     * @return the heap in use summed over all pools, or -1 when the endpoint did not answer
+     */
+    long heapUsed() {
+        return (long) sum(HEAP_USED);
+    }
+
+    /**
+     * @return the sum of the samples whose line starts with {@code prefix}, e.g. the name of
+     *         a gauge, or -1 when the endpoint did not answer
+     */
+    double sum(String prefix) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(metrics).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() != 200) {
+                return -1;
+            }
+            return response.body().lines()
+                    .filter(line -> line.startsWith(prefix))
+                    .mapToDouble(line -> Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1)))
+                    .sum();
+        } catch (IOException ex) {
+            return -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private void record(long heapUsed) {
+        if (heapUsed < 0) {
+            return;
+        }
+        samples.incrementAndGet();
+        min.accumulateAndGet(heapUsed, Math::min);
+        max.accumulateAndGet(heapUsed, Math::max);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.1f to %.1f MB (%d samples)", min.get() / 1e6, max.get() / 1e6, samples.get());
+    }
+}
@@ -0,0 +1,503 @@
+package com.calendar.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for the Keycloak endpoints frontend-app talks to, for load tests on a single
+ * machine without network. Every realm under {@code /realms/<realm>} exists and shares one
+ * RSA signing key. The authorization endpoint approves every request at once and redirects
+ * back with a code; the token endpoint checks PKCE and, when sent, the DPoP proof.
+ * Authorization requests can also be pushed first (RFC 9126) and then referenced by their
+ * {@code request_uri}. The token endpoint also takes UMA grants with
+ * {@code response_mode=decision}, as sent by a policy enforcer; it grants every permission
+ * except the denied ones and issues no RPTs.
+ * <p>
+ * Options: {@code --port} (8180), {@code --threads} (64), {@code --latency} and
+ * {@code --jitter} added to authorize, PAR, token and introspection calls, {@code --error-rate}
+ * of PAR, token and introspection calls answered with 503, {@code --token-ttl} (5m),
+ * {@code --users} distinct subjects (1000), {@code --roles} of the client (my-role) and
+ * {@code --denied-permissions}, comma-separated {@code resource} or {@code resource#scope}
+ * permissions every UMA decision denies (none).
+ */
+public class IdpStub {
+
+    private static final String REALMS_PATH = "/realms/";
+    private static final String PROTOCOL_PATH = "/protocol/openid-connect";
+    private static final String PAR_PATH = PROTOCOL_PATH + "/ext/par/request";
+    private static final String REQUEST_URI_PREFIX = "urn:ietf:params:oauth:request_uri:";
+    private static final Duration REQUEST_URI_TTL = Duration.ofSeconds(60);
+    private static final String UMA_TICKET_GRANT_TYPE = "urn:ietf:params:oauth:grant-type:uma-ticket";
+
+    private final String baseUrl;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final Duration tokenTtl;
+    private final int users;
+    private final List<String> roles;
+    private final Set<String> deniedPermissions;
+
+    private final RSAKey signingKey;
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+
+    private final Map<String, Grant> grants = new ConcurrentHashMap<>();
+    private final Map<String, PushedRequest> pushedRequests = new ConcurrentHashMap<>();
+
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    public IdpStub(String baseUrl, Duration latency, Duration jitter, double errorRate, Duration tokenTtl,
+                   int users, List<String> roles, Set<String> deniedPermissions) throws JOSEException {
+        this.baseUrl = baseUrl;
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.tokenTtl = tokenTtl;
+        this.users = users;
+        this.roles = roles;
+        this.deniedPermissions = deniedPermissions;
+        this.signingKey = new RSAKeyGenerator(2048).keyIDFromThumbprint(true).algorithm(JWSAlgorithm.RS256).generate();
+        this.signer = new RSASSASigner(signingKey);
+        this.verifier = new RSASSAVerifier(signingKey.toRSAPublicKey());
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Args args = new Args(arguments);
+        int port = args.integer("port", 8180);
+        IdpStub stub = new IdpStub("http://localhost:" + port,
+                args.duration("latency", Duration.ZERO),
+                args.duration("jitter", Duration.ZERO),
+                args.decimal("error-rate", 0),
+                args.duration("token-ttl", Duration.ofMinutes(5)),
+                args.integer("users", 1000),
+                List.of(args.string("roles", "my-role").split(",")),
+                Set.of(args.string("denied-permissions", "").split(",")));
+        HttpServer server = stub.start(port, args.integer("threads", 64));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            System.out.printf("IdP stub served %d logins and %d policy decisions, injected %d errors%n",
+                    stub.logins.sum(), stub.decisions.sum(), stub.injectedErrors.sum());
+        }));
+        System.out.printf("IdP stub listening on %s%s<realm>%n", stub.baseUrl, REALMS_PATH);
+    }
+
+    public HttpServer start(int port, int threads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.createContext(REALMS_PATH, this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.start();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath().substring(REALMS_PATH.length());
+            int slash = path.indexOf('/');
+            if (slash <= 0) {
+                send(exchange, 404, Map.of("error", "not_found"));
+                return;
+            }
+            String issuer = baseUrl + REALMS_PATH + path.substring(0, slash);
+            switch (path.substring(slash)) {
+                case "/.well-known/openid-configuration" -> send(exchange, 200, discovery(issuer));
+                case PROTOCOL_PATH + "/certs" -> send(exchange, 200, new JWKSet(signingKey).toJSONObject(true));
+                case PROTOCOL_PATH + "/auth" -> {
+                    delay();
+                    authorize(exchange, issuer);
+                }
+                case PAR_PATH -> {
+                    delay();
+                    if (!injectError(exchange)) {
+                        pushAuthorizationRequest(exchange, issuer);
+                    }
+                }
+                case PROTOCOL_PATH + "/token" -> {
+                    delay();
+                    if (!injectError(exchange)) {
+                        token(exchange, issuer);
+                    }
+                }
+                case PROTOCOL_PATH + "/token/introspect" -> {
+                    delay();
+                    if (!injectError(exchange)) {
+                        introspect(exchange);
+                    }
+                }
+                default -> send(exchange, 404, Map.of("error", "not_found"));
+            }
+        } catch (Exception ex) {
+            send(exchange, 500, Map.of("error", "server_error", "error_description", String.valueOf(ex.getMessage())));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, Object> discovery(String issuer) {
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put("issuer", issuer);
+        configuration.put("authorization_endpoint", issuer + PROTOCOL_PATH + "/auth");
+        configuration.put("token_endpoint", issuer + PROTOCOL_PATH + "/token");
+        configuration.put("pushed_authorization_request_endpoint", issuer + PAR_PATH);
+        configuration.put("introspection_endpoint", issuer + PROTOCOL_PATH + "/token/introspect");
+        configuration.put("jwks_uri", issuer + PROTOCOL_PATH + "/certs");
+        configuration.put("response_types_supported", List.of("code"));
+        configuration.put("subject_types_supported", List.of("public"));
+        configuration.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        configuration.put("code_challenge_methods_supported", List.of("S256"));
+        configuration.put("dpop_signing_alg_values_supported", List.of("RS256", "ES256"));
+        configuration.put("acr_values_supported", List.of("silver", "gold"));
+        return configuration;
+    }
+
+    /**
+     * Stores the request parameters and answers with the {@code request_uri} to reference them
+     * by. A DPoP proof binds the authorization code to its key.
+     */
+    private void pushAuthorizationRequest(HttpExchange exchange, String issuer) throws IOException {
+        Map<String, String> form = form(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        if (form.get("redirect_uri") == null || form.get("client_id") == null || form.containsKey("request_uri")) {
+            send(exchange, 400, Map.of("error", "invalid_request"));
+            return;
+        }
+        String jkt = null;
+        String proof = exchange.getRequestHeaders().getFirst("DPoP");
+        if (proof != null) {
+            jkt = verifyDPoP(proof, issuer + PAR_PATH);
+            if (jkt == null) {
+                send(exchange, 400, Map.of("error", "invalid_dpop_proof"));
+                return;
+            }
+        }
+        Instant now = Instant.now();
+        pushedRequests.values().removeIf(pushed -> pushed.expiresAt().isBefore(now));
+        String requestUri = REQUEST_URI_PREFIX + UUID.randomUUID();
+        pushedRequests.put(requestUri, new PushedRequest(issuer, form, jkt, now.plus(REQUEST_URI_TTL)));
+        send(exchange, 201, Map.of("request_uri", requestUri, "expires_in", REQUEST_URI_TTL.toSeconds()));
+    }
+
+    private void authorize(HttpExchange exchange, String issuer) throws IOException, ParseException {
+        Map<String, String> query = form(exchange.getRequestURI().getRawQuery());
+        String jkt = null;
+        if (query.get("request_uri") != null) {
+            // single use, like Keycloak
+            PushedRequest pushed = pushedRequests.remove(query.get("request_uri"));
+            if (pushed == null || !pushed.issuer().equals(issuer) || pushed.expiresAt().isBefore(Instant.now())
+                    || !pushed.parameters().get("client_id").equals(query.get("client_id"))) {
+                send(exchange, 400, Map.of("error", "invalid_request_uri"));
+                return;
+            }
+            query = pushed.parameters();
+            jkt = pushed.jkt();
+        }
+        String redirectUri = query.get("redirect_uri");
+        if (redirectUri == null || query.get("client_id") == null) {
+            send(exchange, 400, Map.of("error", "invalid_request"));
+            return;
+        }
+        String code = UUID.randomUUID().toString();
+        grants.put(code, new Grant(issuer, query.get("client_id"), redirectUri, query.get("code_challenge"),
+                requestedAcr(query), query.get("nonce"), jkt, Instant.now()));
+        String location = redirectUri + (redirectUri.contains("?") ? "&" : "?")
+                + "code=" + code
+                + (query.get("state") != null ? "&state=" + URLEncoder.encode(query.get("state"), StandardCharsets.UTF_8) : "");
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    /**
+     * Reads the acr from {@code acr_values} or from the essential acr claim requested through
+     * the {@code claims} parameter, defaulting to the weakest level.
+     */
+    @SuppressWarnings("unchecked")
+    private static String requestedAcr(Map<String, String> query) throws ParseException {
+        if (query.get("acr_values") != null) {
+            return query.get("acr_values").split(" ")[0];
+        }
+        if (query.get("claims") != null) {
+            Map<String, Object> idToken = JSONObjectUtils.getJSONObject(JSONObjectUtils.parse(query.get("claims")), "id_token");
+            if (idToken != null && idToken.get("acr") instanceof Map<?, ?> acr && acr.get("values") instanceof List<?> values
+                    && !values.isEmpty()) {
+                return String.valueOf(values.get(0));
+            }
+        }
+        return "silver";
+    }
+
+    private void token(HttpExchange exchange, String issuer) throws IOException, JOSEException {
+        Map<String, String> form = form(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        if (UMA_TICKET_GRANT_TYPE.equals(form.get("grant_type"))) {
+            decide(exchange, form);
+            return;
+        }
+        if (!"authorization_code".equals(form.get("grant_type"))) {
+            send(exchange, 400, Map.of("error", "unsupported_grant_type"));
+            return;
+        }
+        Grant grant = form.get("code") != null ? grants.remove(form.get("code")) : null;
+        if (grant == null || !grant.issuer().equals(issuer) || !grant.redirectUri().equals(form.get("redirect_uri"))) {
+            send(exchange, 400, Map.of("error", "invalid_grant"));
+            return;
+        }
+        if (grant.codeChallenge() != null && !grant.codeChallenge().equals(s256(form.get("code_verifier")))) {
+            send(exchange, 400, Map.of("error", "invalid_grant", "error_description", "PKCE verification failed"));
+            return;
+        }
+        String jkt = null;
+        String proof = exchange.getRequestHeaders().getFirst("DPoP");
+        if (proof != null) {
+            jkt = verifyDPoP(proof, issuer + PROTOCOL_PATH + "/token");
+            if (jkt == null) {
+                send(exchange, 400, Map.of("error", "invalid_dpop_proof"));
+                return;
+            }
+        }
+        if (grant.jkt() != null && !grant.jkt().equals(jkt)) {
+            send(exchange, 400, Map.of("error", "invalid_dpop_proof", "error_description", "DPoP key does not match the code"));
+            return;
+        }
+
+        int user = ThreadLocalRandom.current().nextInt(users);
+        String subject = "loadtest-user-" + user;
+        String sid = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        String tokenType = jkt != null ? "DPoP" : "Bearer";
+
+        JWTClaimsSet.Builder accessToken = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(tokenTtl)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("typ", tokenType)
+                .claim("azp", grant.clientId())
+                .claim("sid", sid)
+                .claim("acr", grant.acr())
+                .claim("scope", "openid")
+                .claim("name", "Load Test User " + user)
+                .claim("preferred_username", subject)
+                .claim("resource_access", Map.of(grant.clientId(), Map.of("roles", roles)));
+        if (jkt != null) {
+            accessToken.claim("cnf", Map.of("jkt", jkt));
+        }
+        JWTClaimsSet.Builder idToken = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .audience(grant.clientId())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(tokenTtl)))
+                .claim("auth_time", now.getEpochSecond())
+                .claim("acr", grant.acr())
+                .claim("sid", sid)
+                .claim("azp", grant.clientId())
+                .claim("name", "Load Test User " + user)
+                .claim("preferred_username", subject);
+        if (grant.nonce() != null) {
+            idToken.claim("nonce", grant.nonce());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("access_token", sign(accessToken.build()));
+        response.put("token_type", tokenType);
+        response.put("expires_in", tokenTtl.toSeconds());
+        response.put("id_token", sign(idToken.build()));
+        response.put("scope", "openid");
+        logins.increment();
+        send(exchange, 200, response);
+    }
+
+    /**
+     * Answers a UMA grant for one permission of the bearer token's subject with the decision
+     * alone, like Keycloak does for {@code response_mode=decision}: {@code {"result":true}} or
+     * 403 {@code access_denied}.
+     */
+    private void decide(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ") || !isValid(authorization.substring(7))) {
+            send(exchange, 401, Map.of("error", "invalid_token"));
+            return;
+        }
+        if (!"decision".equals(form.get("response_mode"))) {
+            send(exchange, 400, Map.of("error", "invalid_request", "error_description", "Only response_mode=decision is supported"));
+            return;
+        }
+        String permission = form.get("permission");
+        if (form.get("audience") == null || permission == null) {
+            send(exchange, 400, Map.of("error", "invalid_request"));
+            return;
+        }
+        decisions.increment();
+        if (deniedPermissions.contains(permission)) {
+            send(exchange, 403, Map.of("error", "access_denied", "error_description", "not_authorized"));
+            return;
+        }
+        send(exchange, 200, Map.of("result", true));
+    }
+
+    /**
+     * @return whether the token was issued by this stub and has not expired
+     */
+    private boolean isValid(String token) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            return jwt.verify(verifier) && jwt.getJWTClaimsSet().getExpirationTime().after(new Date());
+        } catch (ParseException | JOSEException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks the proof's type, signature, method and URL.
+     *
+     * @return the thumbprint of the proof key, or {@code null} when the proof is invalid
+     */
+    private static String verifyDPoP(String proof, String endpoint) {
+        try {
+            SignedJWT jwt = SignedJWT.parse(proof);
+            JWK jwk = jwt.getHeader().getJWK();
+            if (jwk == null || !new JOSEObjectType("dpop+jwt").equals(jwt.getHeader().getType())
+                    || !jwt.verify(new RSASSAVerifier(jwk.toRSAKey()))) {
+                return null;
+            }
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            if (!"POST".equals(claims.getStringClaim("htm")) || !endpoint.equals(claims.getStringClaim("htu"))) {
+                return null;
+            }
+            return jwk.computeThumbprint().toString();
+        } catch (ParseException | JOSEException | ClassCastException ex) {
+            return null;
+        }
+    }
+
+    private void introspect(HttpExchange exchange) throws IOException {
+        Map<String, String> form = form(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Map<String, Object> response = new HashMap<>(Map.of("active", false));
+        try {
+            SignedJWT jwt = SignedJWT.parse(form.getOrDefault("token", ""));
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            if (jwt.verify(verifier) && claims.getExpirationTime().after(new Date())) {
+                response.putAll(claims.toJSONObject());
+                response.put("active", true);
+                response.put("client_id", claims.getStringClaim("azp"));
+                response.put("token_type", claims.getStringClaim("typ"));
+            }
+        } catch (ParseException | JOSEException ex) {
+            // not one of ours, inactive
+        }
+        send(exchange, 200, response);
+    }
+
+    private String sign(JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .type(JOSEObjectType.JWT)
+                .keyID(signingKey.getKeyID())
+                .build(), claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    private void delay() throws InterruptedException {
+        long millis = latency.toMillis();
+        if (!jitter.isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        }
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private boolean injectError(HttpExchange exchange) throws IOException {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.increment();
+            send(exchange, 503, Map.of("error", "temporarily_unavailable"));
+            return true;
+        }
+        return false;
+    }
+
+    private static String s256(String verifier) {
+        if (verifier == null) {
+            return null;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(verifier.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Map<String, String> form(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        byte[] json = JSONObjectUtils.toJSONString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, json.length);
+        exchange.getResponseBody().write(json);
+    }
+
+    /**
+     * @param jkt thumbprint of the DPoP key the code is bound to, {@code null} when unbound
+     */
+    private record Grant(String issuer, String clientId, String redirectUri, String codeChallenge, String acr,
+                         String nonce, String jkt, Instant createdAt) {
+    }
+
+    private record PushedRequest(String issuer, Map<String, String> parameters, String jkt, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.calendar.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Drives complete logins against frontend-app, each followed by calendar API calls with the
+ * obtained access token, and reports throughput and latency percentiles per stage.
+ * Every virtual user runs its own cookie jar and follows redirects by hand, so each hop of
+ * the authorization code flow is measured on its own.
+ * <p>
+ * Options: {@code --target} (http://localhost:8081), {@code --users} concurrent virtual
+ * users (20), {@code --warmup} (10s) and {@code --duration} (60s), {@code --api-calls} per
+ * login (5), {@code --acr} (gold), {@code --target-page} (calendar) and {@code --report},
+ * a file the summary is written to as JSON. The size of the redirect to the IdP, which
+ * the browser carries on every login, is reported as well.
+ */
+public class LoginLoadGenerator {
+
+    private static final IntPredicate OK = status -> status == 200;
+    private static final IntPredicate REDIRECT = status -> status >= 300 && status < 400;
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("data-access-token=\"([^\"]+)\"");
+
+    enum Stage {
+        LOGIN_PAGE("login-page"),
+        AUTHORIZE("authorize"),
+        IDP_AUTHORIZE("idp-authorize"),
+        CALLBACK("callback"),
+        HOME("home"),
+        LOGIN("login"),
+        API_CALENDAR("api-calendar");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    private final URI target;
+    private final int apiCalls;
+    private final String acr;
+    private final String targetPage;
+
+    private volatile Map<Stage, StageStats> stats = newStats();
+    private volatile RedirectSize redirectSize = new RedirectSize();
+
+    /**
+     * @param target the application, a path like {@code /t/<tenant>} addresses a tenant
+     */
+    public LoginLoadGenerator(URI target, int apiCalls, String acr, String targetPage) {
+        // the stages resolve relative to the target, so a tenant path prefix is kept
+        this.target = target.getPath().endsWith("/") ? target : URI.create(target + "/");
+        this.apiCalls = apiCalls;
+        this.acr = acr;
+        this.targetPage = targetPage;
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Args args = new Args(arguments);
+        int users = args.integer("users", 20);
+        Duration warmup = args.duration("warmup", Duration.ofSeconds(10));
+        Duration duration = args.duration("duration", Duration.ofSeconds(60));
+        LoginLoadGenerator generator = new LoginLoadGenerator(URI.create(args.string("target", "http://localhost:8081")),
+                args.integer("api-calls", 5), args.string("acr", "gold"), args.string("target-page", "calendar"));
+
+        System.out.printf("%d users, %ds warm-up, %ds measured against %s%n",
+                users, warmup.toSeconds(), duration.toSeconds(), generator.target);
+        List<StageStats.Summary> summaries = generator.run(users, warmup, duration);
+
+        System.out.println(StageStats.Summary.HEADER);
+        summaries.forEach(summary -> System.out.println(summary.row()));
+        System.out.println(generator.redirectSize);
+        String report = args.string("report", null);
+        if (report != null) {
+            Files.writeString(Path.of(report), summaries.stream()
+                    .map(StageStats.Summary::json)
+                    .collect(Collectors.joining(",\n  ", "[\n  ", "\n]\n")));
+        }
+    }
+
+    public List<StageStats.Summary> run(int users, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int i = 0; i < users; i++) {
+            executor.submit(() -> virtualUser(deadline));
+        }
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        stats = newStats();
+        redirectSize = new RedirectSize();
+        executor.shutdown();
+        executor.awaitTermination(duration.toNanos() + TimeUnit.SECONDS.toNanos(30), TimeUnit.NANOSECONDS);
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        List<StageStats.Summary> summaries = new ArrayList<>();
+        stats.values().forEach(stageStats -> summaries.add(stageStats.summarize(seconds)));
+        return summaries;
+    }
+
+    private void virtualUser(long deadline) {
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        HttpClient client = newClient(cookies);
+        while (System.nanoTime() < deadline) {
+            cookies.getCookieStore().removeAll();
+            long loginStart = System.nanoTime();
+            String accessToken = login(client);
+            stats.get(Stage.LOGIN).record(System.nanoTime() - loginStart, accessToken != null);
+            if (accessToken == null) {
+                continue;
+            }
+            for (int i = 0; i < apiCalls && System.nanoTime() < deadline; i++) {
+                send(client, Stage.API_CALENDAR, HttpRequest.newBuilder(target.resolve("api/calendar"))
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("Accept", "application/json")
+                        .build(), OK);
+            }
+        }
+    }
+
+    /**
+     * A client for one virtual user, which follows redirects only through {@link #login}.
+     */
+    static HttpClient newClient(CookieManager cookies) {
+        return HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Runs one login, also for the other programs of this module that need an access token.
+     *
+     * @return the access token from the home page, {@code null} when a stage failed
+     */
+    String login(HttpClient client) {
+        if (send(client, Stage.LOGIN_PAGE, HttpRequest.newBuilder(target.resolve("login")).build(), OK) == null) {
+            return null;
+        }
+        HttpResponse<String> authorize = send(client, Stage.AUTHORIZE, HttpRequest.newBuilder(target.resolve("oauth2/authorize?acr=" + acr + "&targetPage=" + targetPage))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), REDIRECT);
+        if (authorize != null) {
+            redirectSize.record(authorize);
+        }
+        HttpResponse<String> idpAuthorize = follow(client, Stage.IDP_AUTHORIZE, authorize);
+        HttpResponse<String> callback = follow(client, Stage.CALLBACK, idpAuthorize);
+        if (callback == null || callback.headers().firstValue("Location").filter(location -> location.contains("/home")).isEmpty()) {
+            return null;
+        }
+        HttpResponse<String> home = send(client, Stage.HOME, HttpRequest.newBuilder(redirect(callback)).build(), OK);
+        if (home == null) {
+            return null;
+        }
+        Matcher matcher = ACCESS_TOKEN.matcher(home.body());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private HttpResponse<String> follow(HttpClient client, Stage stage, HttpResponse<String> redirect) {
+        if (redirect == null) {
+            return null;
+        }
+        return send(client, stage, HttpRequest.newBuilder(redirect(redirect)).build(), REDIRECT);
+    }
+
+    private static URI redirect(HttpResponse<String> response) {
+        return response.uri().resolve(response.headers().firstValue("Location").orElseThrow());
+    }
+
+    private HttpResponse<String> send(HttpClient client, Stage stage, HttpRequest request, IntPredicate expectedStatus) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            boolean success = expectedStatus.test(response.statusCode());
+            stats.get(stage).record(System.nanoTime() - start, success);
+            return success ? response : null;
+        } catch (IOException ex) {
+            stats.get(stage).record(System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Length of the {@code Location} header of the authorize redirect.
+     */
+    private static final class RedirectSize {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(HttpResponse<String> redirect) {
+            int length = redirect.headers().firstValue("Location").map(String::length).orElse(0);
+            count.increment();
+            bytes.add(length);
+            max.accumulate(length);
+        }
+
+        @Override
+        public String toString() {
+            long redirects = count.sum();
+            return String.format(Locale.ROOT, "authorize redirect: %d bytes on average, %d at most",
+                    redirects == 0 ? 0 : bytes.sum() / redirects, max.get());
+        }
+    }
+
+    private static Map<Stage, StageStats> newStats() {
+        Map<Stage, StageStats> stats = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            stats.put(stage, new StageStats(stage.label));
+        }
+        return stats;
+    }
+}
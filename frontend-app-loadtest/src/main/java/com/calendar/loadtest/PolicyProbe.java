@@ -0,0 +1,148 @@
+package com.calendar.loadtest;
+
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calls the API of {@code frontend-app} with the access tokens of many users, each call on a
+ * random one of four endpoints, and reports the latency per endpoint and the lookups of the
+ * policy decision cache, read from the Prometheus endpoint before and after the calls. With
+ * one resource per endpoint, every user needs four decisions; all other checks can be
+ * answered from the cache.
+ * <p>
+ * The application runs with {@code frontend.policy-enforcer.enabled=true} and a path config
+ * per endpoint; the same run without the enforcer is the baseline. The stub picks a subject
+ * per login at random, so the probe logs in until it holds {@code --users} distinct ones.
+ * Options: {@code --target} (http://localhost:8081), {@code --users} (200), {@code --checks}
+ * (50000), {@code --concurrency} (64) and {@code --metrics} as for {@link TenantProbe}.
+ */
+public class PolicyProbe {
+
+    private static final String CACHE_REQUESTS = "policy_cache_requests_total{result=\"";
+
+    private static final List<Endpoint> ENDPOINTS = List.of(
+            new Endpoint("week", "api/calendar", "application/json"),
+            new Endpoint("month", "api/calendar/month?year=2026&month=1", "application/json"),
+            new Endpoint("range", "api/calendar/range?from=2026-01-05&to=2026-01-18", "application/json"),
+            new Endpoint("export", "api/calendar/export?from=2026-01-05&to=2026-01-11", "application/x-ndjson"));
+
+    private final URI target;
+    private final Map<Endpoint, StageStats> stats = new LinkedHashMap<>();
+
+    public PolicyProbe(URI target) {
+        this.target = target.getPath().endsWith("/") ? target : URI.create(target + "/");
+        ENDPOINTS.forEach(endpoint -> stats.put(endpoint, new StageStats(endpoint.name())));
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Args args = new Args(arguments);
+        URI target = URI.create(args.string("target", "http://localhost:8081"));
+        URI metrics = URI.create(args.string("metrics", HeapSampler.metricsOf(target).toString()));
+        int users = args.integer("users", 200);
+        int checks = args.integer("checks", 50000);
+        int concurrency = args.integer("concurrency", 64);
+        PolicyProbe probe = new PolicyProbe(target);
+
+        List<Login> logins = probe.login(users);
+        try (HeapSampler sampler = new HeapSampler(metrics)) {
+            double hitsBefore = sampler.sum(CACHE_REQUESTS + "hit\"");
+            double missesBefore = sampler.sum(CACHE_REQUESTS + "miss\"");
+            long start = System.nanoTime();
+            probe.check(logins, checks, concurrency);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double hits = sampler.sum(CACHE_REQUESTS + "hit\"") - hitsBefore;
+            double misses = sampler.sum(CACHE_REQUESTS + "miss\"") - missesBefore;
+
+            System.out.printf("%d checks from %d users over %d endpoints at concurrency %d%n",
+                    checks, logins.size(), ENDPOINTS.size(), concurrency);
+            System.out.println(StageStats.Summary.HEADER);
+            for (StageStats endpointStats : probe.stats.values()) {
+                System.out.println(endpointStats.summarize(seconds).row());
+            }
+            if (hits + misses > 0) {
+                System.out.printf(Locale.ROOT, "policy cache: %.0f hits, %.0f misses, hit ratio %.3f%n",
+                        hits, misses, hits / (hits + misses));
+            } else {
+                System.out.println("policy cache: no lookups, the enforcer is off");
+            }
+        }
+    }
+
+    /**
+     * Logs in until there is one login for each of {@code users} distinct subjects.
+     */
+    private List<Login> login(int users) throws ParseException {
+        Map<String, Login> bySubject = new LinkedHashMap<>();
+        LoginLoadGenerator generator = new LoginLoadGenerator(target, 0, "gold", "calendar");
+        int attempts = 0;
+        while (bySubject.size() < users) {
+            if (++attempts > 20 * users) {
+                throw new IllegalStateException("Only " + bySubject.size() + " distinct users after " + attempts
+                        + " logins, the stub needs more --users");
+            }
+            // the API needs the session cookie of the login next to the access token
+            HttpClient client = LoginLoadGenerator.newClient(new CookieManager(null, CookiePolicy.ACCEPT_ALL));
+            String accessToken = generator.login(client);
+            if (accessToken == null) {
+                throw new IllegalStateException("Login against " + target + " failed");
+            }
+            String subject = SignedJWT.parse(accessToken).getJWTClaimsSet().getSubject();
+            bySubject.putIfAbsent(subject, new Login(accessToken, client));
+        }
+        return new ArrayList<>(bySubject.values());
+    }
+
+    private void check(List<Login> logins, int checks, int concurrency) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(checks);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (remaining.getAndDecrement() > 0 && !Thread.currentThread().isInterrupted()) {
+                    call(logins.get(random.nextInt(logins.size())), ENDPOINTS.get(random.nextInt(ENDPOINTS.size())));
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+    }
+
+    private void call(Login login, Endpoint endpoint) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = login.client().send(HttpRequest.newBuilder(target.resolve(endpoint.path()))
+                    .header("Authorization", "Bearer " + login.accessToken())
+                    .header("Accept", endpoint.accept())
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            stats.get(endpoint).record(System.nanoTime() - start, response.statusCode() == 200);
+        } catch (IOException ex) {
+            stats.get(endpoint).record(System.nanoTime() - start, false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Endpoint(String name, String path, String accept) {
+    }
+
+    private record Login(String accessToken, HttpClient client) {
+    }
+}
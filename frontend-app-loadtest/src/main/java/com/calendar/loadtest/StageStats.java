@@ -0,0 +1,68 @@
+package com.calendar.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Latencies and errors of one stage of the login flow.
+ */
+class StageStats {
+
+    private final String stage;
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    StageStats(String stage) {
+        this.stage = stage;
+    }
+
+    synchronized void record(long nanos, boolean success) {
+        if (!success) {
+            errors++;
+            return;
+        }
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(stage, count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                count > 0 ? sorted[count - 1] / 1e6 : 0);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Latencies in milliseconds, throughput of successful calls per second.
+     */
+    record Summary(String stage, long count, long errors, double throughput, double p50, double p90, double p99,
+                   double max) {
+
+        static final String HEADER = String.format(Locale.ROOT, "%-14s %9s %7s %9s %9s %9s %9s %9s",
+                "stage", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+
+        String row() {
+            return String.format(Locale.ROOT, "%-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f",
+                    stage, count, errors, throughput, p50, p90, p99, max);
+        }
+
+        String json() {
+            return String.format(Locale.ROOT,
+                    "{\"stage\":\"%s\",\"count\":%d,\"errors\":%d,\"throughput\":%.2f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"max\":%.3f}",
+                    stage, count, errors, throughput, p50, p90, p99, max);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.calendar.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Logs in to many tenants of a multi-tenant {@code frontend-app}, each backed by its own
+ * realm of the IdP stub, and reports the latency of the first login of a tenant, which
+ * creates the tenant and fetches its JWKS, against a second login and an API call, and the
+ * live heap the application retains per resident tenant. Every login leaves a session
+ * behind, so the same number of logins is first run without a tenant and its heap
+ * subtracted.
+ * <p>
+ * The application runs with {@code frontend.tenancy.enabled=true},
+ * {@code frontend.tenancy.resolution=path} and a redirect URI template under
+ * {@code /t/{tenant}}. Options: {@code --target} (http://localhost:8081), {@code --tenants}
+ * (500), {@code --pid} and {@code --settle} (10s) as for {@link UpdatesProbe}, and
+ * {@code --metrics} (the Prometheus endpoint on the management port of the target).
+ */
+public class TenantProbe {
+
+    private final URI target;
+    private final StageStats firstLogin = new StageStats("first-login");
+    private final StageStats secondLogin = new StageStats("second-login");
+    private final StageStats apiCalendar = new StageStats("api-calendar");
+
+    public TenantProbe(URI target) {
+        this.target = target;
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Args args = new Args(arguments);
+        URI target = URI.create(args.string("target", "http://localhost:8081"));
+        URI metrics = URI.create(args.string("metrics", HeapSampler.metricsOf(target).toString()));
+        int tenants = args.integer("tenants", 500);
+        long pid = args.integer("pid", 0);
+        Duration settle = args.duration("settle", Duration.ofSeconds(10));
+        TenantProbe probe = new TenantProbe(target);
+
+        Login login = probe.login(target, new StageStats("warm-up"));
+        if (login == null) {
+            throw new IllegalStateException("Login against " + target + " failed");
+        }
+        try (HeapSampler sampler = new HeapSampler(metrics)) {
+            long before = sampler.liveHeap(pid, settle);
+            StageStats untenanted = new StageStats("no-tenant");
+            long start = System.nanoTime();
+            for (int i = 0; i < 2 * tenants; i++) {
+                probe.login(target, untenanted);
+            }
+            double untenantedSeconds = (System.nanoTime() - start) / 1e9;
+            long sessions = sampler.liveHeap(pid, settle);
+
+            start = System.nanoTime();
+            for (int i = 0; i < tenants; i++) {
+                probe.tenant("tenant-" + i);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long after = sampler.liveHeap(pid, settle);
+
+            System.out.printf("%d tenants, two logins each%n", tenants);
+            System.out.println(StageStats.Summary.HEADER);
+            System.out.println(untenanted.summarize(untenantedSeconds).row());
+            for (StageStats stats : List.of(probe.firstLogin, probe.secondLogin, probe.apiCalendar)) {
+                System.out.println(stats.summarize(seconds).row());
+            }
+            int resident = (int) sampler.sum("tenants_active ");
+            System.out.printf(Locale.ROOT, "live heap: %.1f MB before, %.1f MB after the logins without a tenant, %.1f MB after the tenants%n",
+                    before / 1e6, sessions / 1e6, after / 1e6);
+            System.out.printf(Locale.ROOT, "%d tenants resident, %.1f MB more than the same logins without a tenant, %.1f KB per resident tenant%n",
+                    resident, ((after - sessions) - (sessions - before)) / 1e6, ((after - sessions) - (sessions - before)) / 1e3 / resident);
+        }
+    }
+
+    private void tenant(String tenantId) {
+        URI tenantTarget = target.resolve("/t/" + tenantId + "/");
+        login(tenantTarget, firstLogin);
+        Login login = login(tenantTarget, secondLogin);
+        if (login == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = login.client().send(HttpRequest.newBuilder(tenantTarget.resolve("api/calendar"))
+                    .header("Authorization", "Bearer " + login.accessToken())
+                    .header("Accept", "application/json")
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            apiCalendar.record(System.nanoTime() - start, response.statusCode() == 200);
+        } catch (IOException ex) {
+            apiCalendar.record(System.nanoTime() - start, false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the access token and the client holding the session cookie, {@code null} when
+     *         the login failed
+     */
+    private Login login(URI tenantTarget, StageStats stats) {
+        // the API needs the session cookie of the login next to the access token
+        HttpClient client = LoginLoadGenerator.newClient(new CookieManager(null, CookiePolicy.ACCEPT_ALL));
+        long start = System.nanoTime();
+        String accessToken = new LoginLoadGenerator(tenantTarget, 0, "gold", "calendar").login(client);
+        stats.record(System.nanoTime() - start, accessToken != null);
+        return accessToken != null ? new Login(accessToken, client) : null;
+    }
+
+    private record Login(String accessToken, HttpClient client) {
+    }
+}
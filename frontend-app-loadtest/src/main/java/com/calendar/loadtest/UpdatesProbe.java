@@ -0,0 +1,225 @@
+package com.calendar.loadtest;
+
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds many idle connections on {@code /api/calendar/updates} and reports the heap the
+ * application retains per connection, and how long one change takes to reach every
+ * connection of its user. The connections are spread over {@code --sessions} logins. The
+ * live heap is measured before the connections are opened, while they are open and after
+ * they are closed: with {@code --pid} of the application after a full collection, without
+ * it as the lowest heap sampled over {@code --settle}.
+ * <p>
+ * Options: {@code --target} (http://localhost:8081), {@code --connections} (1000),
+ * {@code --sessions} (10), {@code --pid}, {@code --settle} (10s) and {@code --metrics}
+ * (the Prometheus endpoint on the management port of the target).
+ */
+public class UpdatesProbe {
+
+    private static final Pattern EVENT_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final URI target;
+
+    public UpdatesProbe(URI target) {
+        this.target = target;
+    }
+
+    public static void main(String[] arguments) throws Exception {
+        Args args = new Args(arguments);
+        URI target = URI.create(args.string("target", "http://localhost:8081"));
+        URI metrics = URI.create(args.string("metrics", HeapSampler.metricsOf(target).toString()));
+        int connections = args.integer("connections", 1000);
+        int sessionCount = args.integer("sessions", 10);
+        long pid = args.integer("pid", 0);
+        Duration settle = args.duration("settle", Duration.ofSeconds(10));
+        UpdatesProbe probe = new UpdatesProbe(target);
+
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            sessions.add(probe.login());
+        }
+        try (HeapSampler sampler = new HeapSampler(metrics)) {
+            long before = sampler.liveHeap(pid, settle);
+
+            long openStart = System.nanoTime();
+            List<CompletableFuture<?>> opened = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                opened.add(sessions.get(i % sessionCount).subscribe(target));
+            }
+            CompletableFuture.allOf(opened.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+            System.out.printf(Locale.ROOT, "%d connections over %d sessions open after %.1f s%n",
+                    connections, sessionCount, (System.nanoTime() - openStart) / 1e9);
+
+            long open = sampler.liveHeap(pid, settle);
+            System.out.printf(Locale.ROOT, "live heap: %.1f MB before, %.1f MB with the connections open, %.1f KB per connection%n",
+                    before / 1e6, open / 1e6, (open - before) / 1e3 / connections);
+
+            long[] delivery = new long[connections];
+            int index = 0;
+            for (Session session : sessions) {
+                for (long nanos : session.publishAndAwait(target)) {
+                    delivery[index++] = nanos;
+                }
+            }
+            Arrays.sort(delivery);
+            System.out.printf(Locale.ROOT, "delivery of one change to all connections of its session: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                    percentile(delivery, 0.5) / 1e6, percentile(delivery, 0.99) / 1e6, delivery[connections - 1] / 1e6);
+
+            sessions.forEach(Session::close);
+            long after = sampler.liveHeap(pid, settle);
+            System.out.printf(Locale.ROOT, "live heap after closing: %.1f MB%n", after / 1e6);
+        }
+    }
+
+    private Session login() {
+        CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        HttpClient client = LoginLoadGenerator.newClient(cookies);
+        String accessToken = new LoginLoadGenerator(target, 0, "gold", "calendar").login(client);
+        if (accessToken == null) {
+            throw new IllegalStateException("Login against " + target + " failed");
+        }
+        // HTTP/1.1, so every subscription holds a connection of its own
+        HttpClient streams = HttpClient.newBuilder()
+                .cookieHandler(cookies)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        return new Session(client, streams, accessToken);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static final class Session {
+
+        private final HttpClient client;
+        private final HttpClient streams;
+        private final String accessToken;
+        private final List<Subscription> subscriptions = new ArrayList<>();
+
+        private Session(HttpClient client, HttpClient streams, String accessToken) {
+            this.client = client;
+            this.streams = streams;
+            this.accessToken = accessToken;
+        }
+
+        /**
+         * @return completes once the response headers of the stream arrived
+         */
+        CompletableFuture<?> subscribe(URI target) {
+            Subscription subscription = new Subscription();
+            subscriptions.add(subscription);
+            HttpRequest request = HttpRequest.newBuilder(target.resolve("/api/calendar/updates"))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Accept", "text/event-stream")
+                    .build();
+            CompletableFuture<Void> headers = new CompletableFuture<>();
+            streams.sendAsync(request, info -> {
+                if (info.statusCode() != 200) {
+                    headers.completeExceptionally(new IllegalStateException("Updates answered " + info.statusCode()));
+                    return HttpResponse.BodySubscribers.discarding();
+                }
+                headers.complete(null);
+                return HttpResponse.BodySubscribers.fromLineSubscriber(subscription);
+            }).whenComplete((response, ex) -> {
+                if (ex != null) {
+                    headers.completeExceptionally(ex);
+                }
+            });
+            return headers;
+        }
+
+        /**
+         * Creates an event and waits until it reached every stream of this session, then
+         * deletes it again.
+         *
+         * @return the nanoseconds from sending the request to the arrival, per stream
+         */
+        long[] publishAndAwait(URI target) throws Exception {
+            long start = System.nanoTime();
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(target.resolve("/api/calendar/events"))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"title\":\"Probe\",\"start\":\"2026-01-05T09:00:00Z\",\"end\":\"2026-01-05T10:00:00Z\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = EVENT_ID.matcher(created.body());
+            if (created.statusCode() != 201 || !matcher.find()) {
+                throw new IllegalStateException("Creating an event answered " + created.statusCode());
+            }
+            String eventId = matcher.group(1);
+            long[] delivery = new long[subscriptions.size()];
+            for (int i = 0; i < delivery.length; i++) {
+                delivery[i] = subscriptions.get(i).arrival(eventId).get(30, TimeUnit.SECONDS) - start;
+            }
+            client.send(HttpRequest.newBuilder(target.resolve("/api/calendar/events/" + eventId))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .DELETE()
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            return delivery;
+        }
+
+        void close() {
+            subscriptions.forEach(Subscription::cancel);
+        }
+    }
+
+    /**
+     * Reads one event stream and records when each {@code id:} line arrived.
+     */
+    private static final class Subscription implements Flow.Subscriber<String> {
+
+        private final Map<String, CompletableFuture<Long>> arrivals = new ConcurrentHashMap<>();
+        private volatile Flow.Subscription upstream;
+
+        CompletableFuture<Long> arrival(String eventId) {
+            return arrivals.computeIfAbsent(eventId, id -> new CompletableFuture<>());
+        }
+
+        void cancel() {
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("id:")) {
+                arrival(line.substring(3).trim()).complete(System.nanoTime());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
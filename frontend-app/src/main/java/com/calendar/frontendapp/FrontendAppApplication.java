@@ -1,5 +1,6 @@
 package com.calendar.frontendapp;
 
+import com.calendar.frontendapp.diagnostics.BlockingCallDetector;
 import com.calendar.frontendapp.security.oauth2.OAuth2ClientConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -10,7 +11,9 @@ import org.springframework.context.annotation.Import;
 public class FrontendAppApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(FrontendAppApplication.class, args);
+        SpringApplication application = new SpringApplication(FrontendAppApplication.class);
+        application.addListeners(new BlockingCallDetector());
+        application.run(args);
     }
 
 }
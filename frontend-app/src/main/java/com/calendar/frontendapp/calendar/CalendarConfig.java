@@ -0,0 +1,84 @@
+package com.calendar.frontendapp.calendar;
+
+import com.calendar.frontendapp.event.EventStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class CalendarConfig {
+
+    @Value("${frontend.calendar.cache.ttl:10m}")
+    private Duration cacheTtl;
+
+    @Value("${frontend.calendar.cache.max-entries:50000}")
+    private int cacheMaxEntries;
+
+    @Value("${frontend.calendar.zone:#{null}}")
+    private String zone;
+
+    @Value("${frontend.calendar.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Bean
+    public CalendarEngine calendarEngine() {
+        Clock clock = zone != null ? Clock.system(ZoneId.of(zone)) : Clock.systemDefaultZone();
+        return new CalendarEngine(clock, maxRangeDays);
+    }
+
+    @Bean
+    public CalendarResponseCache calendarResponseCache(ObjectMapper objectMapper) {
+        return new CalendarResponseCache(objectMappers(objectMapper), cacheTtl, cacheMaxEntries);
+    }
+
+    /**
+     * Lets the other endpoints read and write CBOR and Smile with the same Jackson
+     * configuration as JSON. The media types are passed explicitly: the single-argument
+     * constructors fall back to the JSON media types, which would let the binary codecs
+     * claim {@code application/json} bodies, such as the token endpoint responses. Custom
+     * codecs come before the default ones, so a JSON encoder is registered ahead of CBOR to
+     * keep JSON the answer to wildcard {@code Accept} headers, error responses included.
+     */
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper) {
+        Map<CalendarFormat, ObjectMapper> objectMappers = objectMappers(objectMapper);
+        return configurer -> {
+            ObjectMapper cbor = objectMappers.get(CalendarFormat.CBOR);
+            ObjectMapper smile = objectMappers.get(CalendarFormat.SMILE);
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMappers.get(CalendarFormat.JSON)));
+            configurer.customCodecs().register(new Jackson2CborEncoder(cbor, CalendarFormat.CBOR.mediaType()));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, CalendarFormat.CBOR.mediaType()));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, CalendarFormat.SMILE.mediaType()));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, CalendarFormat.SMILE.mediaType()));
+        };
+    }
+
+    private static Map<CalendarFormat, ObjectMapper> objectMappers(ObjectMapper objectMapper) {
+        Map<CalendarFormat, ObjectMapper> objectMappers = new EnumMap<>(CalendarFormat.class);
+        objectMappers.put(CalendarFormat.JSON, objectMapper);
+        objectMappers.put(CalendarFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+        objectMappers.put(CalendarFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+        return objectMappers;
+    }
+
+    @Bean
+    public CalendarViews calendarViews(CalendarEngine calendarEngine, EventStore eventStore,
+                                       CalendarResponseCache calendarResponseCache) {
+        return new CalendarViews(calendarEngine, eventStore, calendarResponseCache);
+    }
+}
@@ -0,0 +1,15 @@
+package com.calendar.frontendapp.calendar;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+
+/**
+ * A single day of a calendar view.
+ */
+public record CalendarDay(LocalDate date,
+                          String dayName,
+                          int dayOfMonth,
+                          @JsonProperty("isToday") boolean isToday,
+                          @JsonProperty("isWeekend") boolean isWeekend) {
+}
@@ -0,0 +1,162 @@
+package com.calendar.frontendapp.calendar;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Computes ISO-8601 weeks, months and arbitrary date ranges.
+ * The first Monday of every week-based year in [{@value #FIRST_YEAR}, {@value #LAST_YEAR}] is
+ * precomputed, so resolving a week is an array lookup; years outside the table are computed on demand.
+ */
+public class CalendarEngine {
+
+    private static final int FIRST_YEAR = 1900;
+    private static final int LAST_YEAR = 2199;
+
+    private static final String[] DAY_NAMES = Arrays.stream(DayOfWeek.values())
+            .map(day -> day.getDisplayName(TextStyle.FULL, Locale.ENGLISH))
+            .toArray(String[]::new);
+
+    private final LocalDate[] firstMondays = new LocalDate[LAST_YEAR - FIRST_YEAR + 2];
+    private final Clock clock;
+    private final int maxRangeDays;
+
+    /**
+     * @param clock        clock used to determine "today"
+     * @param maxRangeDays maximum number of days returned by {@link #range(LocalDate, LocalDate)}
+     */
+    public CalendarEngine(Clock clock, int maxRangeDays) {
+        this.clock = clock;
+        this.maxRangeDays = maxRangeDays;
+        for (int i = 0; i < firstMondays.length; i++) {
+            firstMondays[i] = computeFirstMonday(FIRST_YEAR + i);
+        }
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Returns the instant the given day starts at in the calendar's time zone.
+     */
+    public Instant startOf(LocalDate date) {
+        return date.atStartOfDay(clock.getZone()).toInstant();
+    }
+
+    /**
+     * Returns the instant the given day ends at, exclusive, which is the start of the next
+     * day. For {@link LocalDate#MAX}, which has no next day, it is 24 hours after its start.
+     */
+    public Instant endOf(LocalDate date) {
+        if (date.equals(LocalDate.MAX)) {
+            return startOf(date).plus(Duration.ofDays(1));
+        }
+        return startOf(date.plusDays(1));
+    }
+
+    public CalendarWeek currentWeek() {
+        LocalDate today = today();
+        return week(today.get(IsoFields.WEEK_BASED_YEAR), today.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR), today);
+    }
+
+    /**
+     * @param year the ISO week-based year
+     * @param week the ISO week number, from 1 to 52 or 53
+     */
+    public CalendarWeek week(int year, int week) {
+        return week(year, week, today());
+    }
+
+    public CalendarRange month(int year, int month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.of(year, month);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid month: " + year + "-" + month, ex);
+        }
+        return range(yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    /**
+     * Returns the days from {@code start} to {@code end}, both inclusive.
+     */
+    public CalendarRange range(LocalDate start, LocalDate end) {
+        long length = checkRange(start, end, maxRangeDays);
+        return new CalendarRange(start, end, days(start, (int) length, today()), List.of());
+    }
+
+    /**
+     * Validates that [start, end] is a non-empty range of at most {@code maxDays} days.
+     *
+     * @return the number of days in the range
+     */
+    public long checkRange(LocalDate start, LocalDate end, long maxDays) {
+        long length = ChronoUnit.DAYS.between(start, end) + 1;
+        if (length < 1) {
+            throw new IllegalArgumentException("Range end " + end + " is before its start " + start);
+        }
+        if (length > maxDays) {
+            throw new IllegalArgumentException("Range exceeds " + maxDays + " days");
+        }
+        return length;
+    }
+
+    public int weeksInYear(int year) {
+        return (int) (ChronoUnit.DAYS.between(firstMonday(year), firstMonday(year + 1)) / 7);
+    }
+
+    public CalendarDay day(LocalDate date, LocalDate today) {
+        int dayOfWeek = date.getDayOfWeek().getValue();
+        return new CalendarDay(date, DAY_NAMES[dayOfWeek - 1], date.getDayOfMonth(), date.equals(today), dayOfWeek >= 6);
+    }
+
+    private CalendarWeek week(int year, int week, LocalDate today) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            if (week < 1 || week > weeksInYear(year)) {
+                throw new IllegalArgumentException("Week " + week + " does not exist in " + year);
+            }
+            start = firstMonday(year).plusWeeks(week - 1);
+            end = start.plusDays(6);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid week: " + year + "-W" + week, ex);
+        }
+        return new CalendarWeek(start, end, week, year, days(start, 7, today), List.of());
+    }
+
+    private List<CalendarDay> days(LocalDate start, int length, LocalDate today) {
+        CalendarDay[] days = new CalendarDay[length];
+        for (int i = 0; i < length; i++) {
+            // not advanced past the last day, which may be LocalDate.MAX
+            days[i] = day(start.plusDays(i), today);
+        }
+        return Collections.unmodifiableList(Arrays.asList(days));
+    }
+
+    private LocalDate firstMonday(int year) {
+        if (year >= FIRST_YEAR && year <= LAST_YEAR + 1) {
+            return firstMondays[year - FIRST_YEAR];
+        }
+        return computeFirstMonday(year);
+    }
+
+    private static LocalDate computeFirstMonday(int year) {
+        // ISO week 1 is the week containing January 4th
+        return LocalDate.of(year, 1, 4).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
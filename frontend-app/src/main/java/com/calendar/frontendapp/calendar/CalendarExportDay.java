@@ -0,0 +1,12 @@
+package com.calendar.frontendapp.calendar;
+
+import com.calendar.frontendapp.event.CalendarEvent;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * One element of a streamed calendar export: a day and the events overlapping it.
+ */
+public record CalendarExportDay(@JsonUnwrapped CalendarDay day, List<CalendarEvent> events) {
+}
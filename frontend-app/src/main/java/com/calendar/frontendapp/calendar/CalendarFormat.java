@@ -0,0 +1,50 @@
+package com.calendar.frontendapp.calendar;
+
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Encodings the calendar views are served in. JSON stays the default, CBOR and Smile are
+ * compact binary encodings of the same document for clients that poll frequently.
+ */
+public enum CalendarFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    CalendarFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Picks the format preferred by the given {@code Accept} media types, honoring their
+     * quality values. Falls back to JSON when none of the formats is acceptable.
+     */
+    public static CalendarFormat negotiate(List<MediaType> accept) {
+        return accept.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .filter(mediaType -> mediaType.getQualityValue() > 0)
+                .map(CalendarFormat::forMediaType)
+                .filter(format -> format != null)
+                .findFirst()
+                .orElse(JSON);
+    }
+
+    private static CalendarFormat forMediaType(MediaType accepted) {
+        for (CalendarFormat format : values()) {
+            if (accepted.isCompatibleWith(format.mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
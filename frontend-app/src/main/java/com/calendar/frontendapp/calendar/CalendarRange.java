@@ -0,0 +1,19 @@
+package com.calendar.frontendapp.calendar;
+
+import com.calendar.frontendapp.event.CalendarEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * An arbitrary range of days, both ends inclusive.
+ */
+public record CalendarRange(LocalDate startDate,
+                            LocalDate endDate,
+                            List<CalendarDay> days,
+                           List<CalendarEvent> events) {
+
+    public CalendarRange withEvents(List<CalendarEvent> events) {
+        return new CalendarRange(startDate, endDate, days, events);
+    }
+}
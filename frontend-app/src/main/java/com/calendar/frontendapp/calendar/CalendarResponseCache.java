@@ -0,0 +1,126 @@
+package com.calendar.frontendapp.calendar;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.util.DigestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches calendar views per user as pre-serialized bodies together with a strong ETag,
+ * so that repeated requests neither rebuild nor re-serialize the view. Every
+ * {@link CalendarFormat} is encoded with a writer prebuilt for the typed view classes.
+ * <p>
+ * Every user has a generation that {@link #evictUser} advances. A view is stored with the
+ * generation it was built under and only served while that is still the user's generation,
+ * so a view built concurrently with a change of the calendar is never served after it.
+ * Generations are drawn from one counter shared by all users, so they never repeat, and are
+ * forgotten once every view built under an earlier one has expired.
+ */
+public class CalendarResponseCache {
+
+    private static final List<Class<?>> VIEW_TYPES = List.of(CalendarWeek.class, CalendarRange.class);
+
+    private final Map<CalendarFormat, Map<Class<?>, ObjectWriter>> writers = new EnumMap<>(CalendarFormat.class);
+    private final Duration ttl;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Cache<ViewKey, CachedResponse> cache;
+    // only users whose calendar changed recently have an entry, the others are at generation 0
+    private final Cache<String, Long> generations;
+    private final AtomicLong lastGeneration = new AtomicLong();
+
+    public CalendarResponseCache(Map<CalendarFormat, ObjectMapper> objectMappers, Duration ttl, int maxEntries) {
+        for (CalendarFormat format : CalendarFormat.values()) {
+            ObjectMapper objectMapper = objectMappers.get(format);
+            if (objectMapper == null) {
+                throw new IllegalArgumentException("No object mapper configured for " + format);
+            }
+            Map<Class<?>, ObjectWriter> formatWriters = new ConcurrentHashMap<>();
+            VIEW_TYPES.forEach(type -> formatWriters.put(type, objectMapper.writerFor(type)));
+            writers.put(format, formatWriters);
+        }
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        // outlives the views built under the previous generation, which expire after the ttl
+        // counted from shortly after the generation was read
+        this.generations = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * Returns the cached view of the user, serializing the generated view on a miss.
+     *
+     * @param userId    the user the view belongs to
+     * @param viewKey   identifies the view, e.g. the ISO week
+     * @param format    the encoding of the body
+     * @param type      the view class, one of the prebuilt view types
+     * @param generator builds the view on a cache miss
+     */
+    public <T> CachedResponse get(String userId, String viewKey, CalendarFormat format,
+                                  Class<T> type, Supplier<T> generator) {
+        ObjectWriter writer = writers.get(format).get(type);
+        if (writer == null) {
+            throw new IllegalArgumentException("Unsupported calendar view type " + type.getName());
+        }
+        ViewKey key = new ViewKey(userId, viewKey, format);
+        long generation = generation(userId);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.generation() == generation) {
+            return cached;
+        }
+
+        CachedResponse response = serialize(writer, generator.get(), generation, clock.instant().plus(ttl));
+        if (generation(userId) == generation) {
+            cache.put(key, response);
+        }
+        return response;
+    }
+
+    /**
+     * Drops every cached view of the user, e.g. after the user's calendar changed.
+     */
+    public void evictUser(String userId) {
+        generations.put(userId, lastGeneration.incrementAndGet());
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    private long generation(String userId) {
+        Long generation = generations.getIfPresent(userId);
+        return generation != null ? generation : 0L;
+    }
+
+    private static CachedResponse serialize(ObjectWriter writer, Object view, long generation, Instant expiresAt) {
+        try {
+            byte[] body = writer.writeValueAsBytes(view);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new CachedResponse(body, etag, generation, expiresAt);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize calendar view", ex);
+        }
+    }
+
+    public record CachedResponse(byte[] body, String etag, long generation, Instant expiresAt) {
+    }
+
+    private record ViewKey(String userId, String view, CalendarFormat format) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.calendar.frontendapp.calendar;
+
+import com.calendar.frontendapp.calendar.CalendarResponseCache.CachedResponse;
+import com.calendar.frontendapp.event.EventStore;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Builds the calendar views of a user together with their events and serves them from the
+ * {@link CalendarResponseCache}. Shared by the REST API and the server-side rendered pages,
+ * so both hit the same cache entries.
+ */
+public class CalendarViews {
+
+    private final CalendarEngine calendarEngine;
+    private final EventStore eventStore;
+    private final CalendarResponseCache calendarResponseCache;
+
+    public CalendarViews(CalendarEngine calendarEngine, EventStore eventStore, CalendarResponseCache calendarResponseCache) {
+        this.calendarEngine = calendarEngine;
+        this.eventStore = eventStore;
+        this.calendarResponseCache = calendarResponseCache;
+    }
+
+    public CachedResponse currentWeek(String userId, CalendarFormat format) {
+        return cached(userId, "week:current", format, CalendarWeek.class, () -> withEvents(userId, calendarEngine.currentWeek()));
+    }
+
+    public CachedResponse week(String userId, int year, int week, CalendarFormat format) {
+        return cached(userId, "week:" + year + "-W" + week, format, CalendarWeek.class,
+                () -> withEvents(userId, calendarEngine.week(year, week)));
+    }
+
+    public CachedResponse month(String userId, int year, int month, CalendarFormat format) {
+        return cached(userId, "month:" + year + "-" + month, format, CalendarRange.class,
+                () -> withEvents(userId, calendarEngine.month(year, month)));
+    }
+
+    public CachedResponse range(String userId, LocalDate from, LocalDate to, CalendarFormat format) {
+        return cached(userId, "range:" + from + ":" + to, format, CalendarRange.class,
+                () -> withEvents(userId, calendarEngine.range(from, to)));
+    }
+
+    /**
+     * Drops the cached views of the user, e.g. after one of its events changed.
+     */
+    public void evict(String userId) {
+        calendarResponseCache.evictUser(userId);
+    }
+
+    /**
+     * The current date is part of the key, so cached views never carry a stale "today" flag.
+     */
+    private <T> CachedResponse cached(String userId, String viewKey, CalendarFormat format,
+                                      Class<T> type, Supplier<T> view) {
+        return calendarResponseCache.get(userId, viewKey + "@" + calendarEngine.today(), format, type, view);
+    }
+
+    private CalendarWeek withEvents(String userId, CalendarWeek week) {
+        return week.withEvents(eventStore.find(userId,
+                calendarEngine.startOf(week.weekStartDate()), calendarEngine.endOf(week.weekEndDate())));
+    }
+
+    private CalendarRange withEvents(String userId, CalendarRange range) {
+        return range.withEvents(eventStore.find(userId,
+                calendarEngine.startOf(range.startDate()), calendarEngine.endOf(range.endDate())));
+    }
+}
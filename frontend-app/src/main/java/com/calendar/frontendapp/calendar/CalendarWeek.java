@@ -0,0 +1,21 @@
+package com.calendar.frontendapp.calendar;
+
+import com.calendar.frontendapp.event.CalendarEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * An ISO-8601 week, Monday to Sunday, of a week-based year.
+ */
+public record CalendarWeek(LocalDate weekStartDate,
+                           LocalDate weekEndDate,
+                           int weekNumber,
+                           int year,
+                           List<CalendarDay> days,
+                           List<CalendarEvent> events) {
+
+    public CalendarWeek withEvents(List<CalendarEvent> events) {
+        return new CalendarWeek(weekStartDate, weekEndDate, weekNumber, year, days, events);
+    }
+}
@@ -0,0 +1,39 @@
+package com.calendar.frontendapp.controller;
+
+import com.calendar.frontendapp.security.oauth2.logout.BackChannelLogoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+public class BackChannelLogout {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackChannelLogout.class);
+
+    @Autowired
+    private BackChannelLogoutHandler backChannelLogoutHandler;
+
+    @PostMapping(value = "/oauth2/backchannel-logout", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public Mono<ResponseEntity<Map<String, String>>> logout(ServerWebExchange exchange) {
+        return exchange.getFormData()
+                .flatMap(formData -> backChannelLogoutHandler.logout(formData.getFirst("logout_token")))
+                .map(revoked -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .<Map<String, String>>build())
+                .onErrorResume(ex -> {
+                    logger.warn("Rejected back-channel logout request: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.badRequest()
+                            .cacheControl(CacheControl.noStore())
+                            .body(Map.of("error", "invalid_request", "error_description", String.valueOf(ex.getMessage()))));
+                });
+    }
+}
@@ -1,62 +1,170 @@
 package com.calendar.frontendapp.controller;
 
+import com.calendar.frontendapp.calendar.CalendarFormat;
+import com.calendar.frontendapp.calendar.CalendarViews;
+import com.calendar.frontendapp.metrics.LoginMetrics;
+import com.calendar.frontendapp.security.oauth2.AccessToken;
+import com.calendar.frontendapp.security.oauth2.AcrPolicy;
 import com.calendar.frontendapp.security.oauth2.OAuth2Client;
+import com.calendar.frontendapp.security.tenant.TenantRegistry;
+import com.calendar.frontendapp.security.tenant.TenantWebFilter;
+import com.calendar.frontendapp.tracing.LoginTracing;
+import com.calendar.frontendapp.web.Pages;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebSession;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Controller
 public class Frontend {
 
     private static final Logger logger = LoggerFactory.getLogger(Frontend.class);
 
+    private static final String CALENDAR_ACR = "gold";
+
+    private static final DateTimeFormatter SESSION_STARTED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
     @Autowired
     private OAuth2Client oauth2Client;
 
+    @Autowired
+    private AcrPolicy acrPolicy;
+
+    @Autowired
+    private CalendarViews calendarViews;
+
+    @Autowired
+    private Pages pages;
+
+    @Autowired
+    private LoginMetrics loginMetrics;
+
+    @Autowired
+    private LoginTracing loginTracing;
+
+    @Autowired(required = false)
+    private TenantRegistry tenantRegistry;
+
     @GetMapping("/")
     public Mono<String> index() {
         return Mono.just("redirect:/login");
     }
 
+    /**
+     * Renders the home page from its precompiled fragments. When the calendar is the target,
+     * the current week is resolved in parallel with the session and embedded into the page,
+     * so the browser does not need a second round trip to {@code /api/calendar}.
+     */
     @GetMapping("/home")
-    public Mono<String> home(WebSession session, Model model) {
-        model.addAttribute("message", "Welcome to Home");
-        model.addAttribute("username", session.getAttribute("username"));
-        model.addAttribute("accessToken", (String) session.getAttributes().get("access_token"));
-        return Mono.just("home");
+    @ResponseBody
+    public Mono<ResponseEntity<byte[]>> home(@RequestParam(value = "target", required = false) String target,
+                                             ServerWebExchange exchange) {
+        Mono<Optional<String>> calendar = "calendar".equals(target)
+                ? prefetchCalendar(exchange)
+                : Mono.just(Optional.empty());
+        return Mono.zip(exchange.getSession(), calendar)
+                .map(tuple -> {
+                    WebSession session = tuple.getT1();
+                    // the calendar is only embedded once the step-up is satisfied
+                    String calendarJson = tuple.getT2()
+                            .filter(json -> acrPolicy.isSatisfied(session, CALENDAR_ACR))
+                            .orElse(null);
+
+                    Map<String, String> slots = new HashMap<>();
+                    slots.put(Pages.USERNAME, session.getAttribute("username"));
+                    AccessToken accessToken = AccessToken.from(session);
+                    slots.put(Pages.ACCESS_TOKEN, accessToken != null ? accessToken.value() : null);
+                    slots.put(Pages.WELCOME_STYLE, calendarJson != null ? "display:none" : "");
+                    slots.put(Pages.SESSION_STARTED, LocalDateTime.now().format(SESSION_STARTED_FORMAT));
+                    slots.put(Pages.CALENDAR_JSON, calendarJson != null ? calendarJson : "null");
+                    return ResponseEntity.ok()
+                            .contentType(TEXT_HTML_UTF8)
+                            // the page carries the access token
+                            .cacheControl(CacheControl.noStore())
+                            .body(pages.home(slots));
+                });
+    }
+
+    /**
+     * Serializes the current week of the authenticated user. Failures are not fatal, the
+     * page then falls back to loading the calendar from the API.
+     */
+    private Mono<Optional<String>> prefetchCalendar(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .publishOn(Schedulers.parallel())
+                .map(principal -> Optional.of(new String(calendarViews.currentWeek(RestApi.userId(principal), CalendarFormat.JSON).body(),
+                        StandardCharsets.UTF_8)))
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(ex -> {
+                    logger.warn("Failed to prefetch calendar: {}", ex.getMessage());
+                    return Mono.just(Optional.empty());
+                });
     }
 
+    /**
+     * Serves the login page rendered at startup.
+     */
     @GetMapping("/login")
-    public Mono<String> login(WebSession session, Model model) {
-        return Mono.just("login");
+    @ResponseBody
+    public Mono<ResponseEntity<byte[]>> login() {
+        return Mono.just(ResponseEntity.ok()
+                .contentType(TEXT_HTML_UTF8)
+                .cacheControl(CacheControl.noCache())
+                .eTag(pages.loginEtag())
+                .body(pages.login()));
     }
 
     @GetMapping("/calendar")
-    public Mono<String> calendar(WebSession session, Model model) {
-        return authorize(session,"gold", "calendar");
+    public Mono<String> calendar(WebSession session, ServerWebExchange exchange) {
+        if (acrPolicy.isSatisfied(session, CALENDAR_ACR)) {
+            logger.debug("Session already authenticated at acr '{}', skipping step-up", CALENDAR_ACR);
+            return Mono.just("redirect:/home?target=calendar");
+        }
+        return authorize(session, CALENDAR_ACR, "calendar", exchange);
     }
 
     @PostMapping("/oauth2/authorize")
-    public Mono<String> authorize(WebSession session, @RequestParam String acr, @RequestParam String targetPage) {
-        return Mono.defer(() -> {
+    public Mono<String> authorize(WebSession session, @RequestParam String acr, @RequestParam String targetPage,
+                                  ServerWebExchange exchange) {
+        return loginTracing.observe("login.authorize", () -> {
+            Mono<String> authorizationUrl;
             try {
-                String authorizationUrl = oauth2Client.authorizationUrl(session, acr, targetPage);
-                if (authorizationUrl != null) {
-                    return Mono.just("redirect:" + authorizationUrl);
-                }
-                logger.error("Failed to generate authorization URL");
-                return Mono.just("redirect:/login?error=authorization_failed");
-            } catch (Exception ex) {
-                logger.error("Authorization initiation failed: {}", ex.getMessage(), ex);
-                return Mono.just("redirect:/login?error=authorization_failed");
+                // called while the observation is in scope, so the login trace is bound to the state
+                authorizationUrl = oauth2Client(exchange).authorizationUrl(session, acr, targetPage);
+            } catch (RuntimeException ex) {
+                authorizationUrl = Mono.error(ex);
             }
+            return authorizationUrl
+                    .map(url -> "redirect:" + url)
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        logger.error("Failed to generate authorization URL");
+                        return "redirect:/login?error=authorization_failed";
+                    }))
+                    .onErrorResume(ex -> {
+                        logger.error("Authorization initiation failed: {}", ex.getMessage(), ex);
+                        return Mono.just("redirect:/login?error=authorization_failed");
+                    });
         });
     }
 
@@ -66,6 +174,7 @@ public class Frontend {
             @RequestParam(value = "state", required = false) String state,
             @RequestParam(value = "error", required = false) String error,
             WebSession session,
+            ServerWebExchange exchange,
             Model model) {
         if (error != null) {
             model.addAttribute("error", error);
@@ -83,12 +192,28 @@ public class Frontend {
         }
 
         String target = state.split("__")[0];
-        return oauth2Client.tokenExchange(session, code)
+        Mono<String> view = loginTracing.observeCallback("login.callback", session, state,
+                        () -> oauth2Client(exchange).tokenExchange(session, code))
                 .then(Mono.just("redirect:/home?target=" + target))
                 .onErrorResume(ex -> {
                     model.addAttribute("error", "Token exchange failed: " + ex.getMessage());
                     return Mono.just("login");
                 });
+        if (!loginMetrics.isEnabled()) {
+            return view;
+        }
+        long start = loginMetrics.start();
+        return view.doOnNext(name -> loginMetrics.callback(start, name.startsWith("redirect:")));
     }
 
+    /**
+     * @return the client of the request's tenant, or the default client outside of a tenant
+     */
+    private OAuth2Client oauth2Client(ServerWebExchange exchange) {
+        String tenantId = exchange.getAttribute(TenantWebFilter.TENANT_ATTRIBUTE);
+        if (tenantId != null && tenantRegistry != null) {
+            return tenantRegistry.get(tenantId).client();
+        }
+        return oauth2Client;
+    }
 }
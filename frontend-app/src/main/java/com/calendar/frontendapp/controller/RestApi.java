@@ -1,19 +1,194 @@
 package com.calendar.frontendapp.controller;
 
-import com.calendar.frontendapp.util.CalendarGenerator;
+import com.calendar.frontendapp.calendar.CalendarEngine;
+import com.calendar.frontendapp.calendar.CalendarExportDay;
+import com.calendar.frontendapp.calendar.CalendarFormat;
+import com.calendar.frontendapp.calendar.CalendarResponseCache.CachedResponse;
+import com.calendar.frontendapp.calendar.CalendarViews;
+import com.calendar.frontendapp.event.CalendarDelta;
+import com.calendar.frontendapp.event.CalendarEvent;
+import com.calendar.frontendapp.event.CalendarUpdateBroadcaster;
+import com.calendar.frontendapp.event.EventStore;
+import com.calendar.frontendapp.event.NewCalendarEvent;
+import com.calendar.frontendapp.security.OAuth2AuthenticationToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.net.URI;
+import java.security.Principal;
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 public class RestApi {
 
-    @GetMapping("/api/calendar")
+    private static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    @Autowired
+    private CalendarEngine calendarEngine;
+
+    @Autowired
+    private CalendarViews calendarViews;
+
+    @Autowired
+    private EventStore eventStore;
+
+    @Autowired
+    private CalendarUpdateBroadcaster calendarUpdateBroadcaster;
+
+    @Value("${frontend.calendar.max-export-days:36600}")
+    private long maxExportDays;
+
+    /**
+     * Returns the ISO week given by {@code year} and {@code week}, or the current week when
+     * both are omitted. Conditional requests with a matching {@code If-None-Match} are
+     * answered with 304 Not Modified.
+     */
+    @GetMapping(value = "/api/calendar", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE})
     @ResponseBody
-    public Mono<Map<String, Object>> calendarData() {
-        return Mono.fromCallable(CalendarGenerator::generateWeekCalendar);
+    public Mono<ResponseEntity<DataBuffer>> calendarData(@RequestParam(value = "year", required = false) Integer year,
+                                                         @RequestParam(value = "week", required = false) Integer week,
+                                                         Principal principal,
+                                                         ServerWebExchange exchange) {
+        if ((year == null) != (week == null)) {
+            return Mono.error(new IllegalArgumentException("Parameters 'year' and 'week' must be given together"));
+        }
+        String userId = userId(principal);
+        if (year == null) {
+            return cachedView(exchange, format -> calendarViews.currentWeek(userId, format));
+        }
+        return cachedView(exchange, format -> calendarViews.week(userId, year, week, format));
+    }
+
+    @GetMapping(value = "/api/calendar/month", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE})
+    @ResponseBody
+    public Mono<ResponseEntity<DataBuffer>> monthData(@RequestParam("year") int year,
+                                                      @RequestParam("month") int month,
+                                                      Principal principal,
+                                                      ServerWebExchange exchange) {
+        String userId = userId(principal);
+        return cachedView(exchange, format -> calendarViews.month(userId, year, month, format));
+    }
+
+    /**
+     * Returns the days from {@code from} to {@code to}, both inclusive, in ISO date format.
+     */
+    @GetMapping(value = "/api/calendar/range", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE})
+    @ResponseBody
+    public Mono<ResponseEntity<DataBuffer>> rangeData(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      Principal principal,
+                                                      ServerWebExchange exchange) {
+        String userId = userId(principal);
+        return cachedView(exchange, format -> calendarViews.range(userId, from, to, format));
+    }
+
+    /**
+     * Streams the days from {@code from} to {@code to}, both inclusive, each with its events,
+     * as NDJSON or server-sent events. Days are generated on demand as the client consumes
+     * them, so memory per request does not depend on the size of the range. Generating and
+     * encoding run on the parallel scheduler in batches of what the connection requested, so a
+     * long export does not hold its event loop until it completes.
+     */
+    @GetMapping(value = "/api/calendar/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CalendarExportDay> exportData(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              Principal principal) {
+        String userId = userId(principal);
+        calendarEngine.checkRange(from, to, maxExportDays);
+        return Flux.defer(() -> {
+            LocalDate today = calendarEngine.today();
+            return Flux.<CalendarExportDay, LocalDate>generate(() -> from, (date, sink) -> {
+                sink.next(new CalendarExportDay(calendarEngine.day(date, today),
+                        eventStore.find(userId, calendarEngine.startOf(date), calendarEngine.endOf(date))));
+                if (date.equals(to)) {
+                    // not advanced past the last day, which may be LocalDate.MAX
+                    sink.complete();
+                    return date;
+                }
+                return date.plusDays(1);
+            });
+        }).subscribeOn(Schedulers.parallel());
+    }
+
+    /**
+     * Pushes changes to the current user's calendar as server-sent events, so clients do not
+     * need to refetch views. The stream sends heartbeat comments and completes when idle;
+     * clients are expected to reconnect.
+     */
+    @GetMapping(value = "/api/calendar/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CalendarDelta>> updates(Principal principal) {
+        return calendarUpdateBroadcaster.subscribe(userId(principal));
+    }
+
+    @PostMapping(value = "/api/calendar/events", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<CalendarEvent>> createEvent(@RequestBody NewCalendarEvent newEvent, Principal principal) {
+        return Mono.fromCallable(() -> {
+            String userId = userId(principal);
+            CalendarEvent event = eventStore.add(userId, newEvent);
+            calendarViews.evict(userId);
+            calendarUpdateBroadcaster.publish(userId, CalendarDelta.created(event));
+            return ResponseEntity.created(URI.create("/api/calendar/events/" + event.id())).body(event);
+        });
+    }
+
+    @DeleteMapping("/api/calendar/events/{id}")
+    public Mono<ResponseEntity<Void>> deleteEvent(@PathVariable("id") String eventId, Principal principal) {
+        return Mono.fromCallable(() -> {
+            String userId = userId(principal);
+            if (!eventStore.remove(userId, eventId)) {
+                return ResponseEntity.notFound().<Void>build();
+            }
+            calendarViews.evict(userId);
+            calendarUpdateBroadcaster.publish(userId, CalendarDelta.deleted(eventId));
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("error", "invalid_request", "error_description", ex.getMessage()));
+    }
+
+    /**
+     * Serves the view in the format negotiated from the {@code Accept} header.
+     */
+    private Mono<ResponseEntity<DataBuffer>> cachedView(ServerWebExchange exchange, Function<CalendarFormat, CachedResponse> view) {
+        CalendarFormat format = CalendarFormat.negotiate(exchange.getRequest().getHeaders().getAccept());
+        return Mono.fromCallable(() -> view.apply(format))
+                .map(cached -> ResponseEntity.ok()
+                        .eTag(cached.etag())
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .contentType(format.mediaType())
+                        .body(exchange.getResponse().bufferFactory().wrap(cached.body())));
+    }
+
+    static String userId(Principal principal) {
+        if (principal instanceof OAuth2AuthenticationToken token && token.getSubject() != null) {
+            return token.getSubject();
+        }
+        return principal.getName();
     }
 }
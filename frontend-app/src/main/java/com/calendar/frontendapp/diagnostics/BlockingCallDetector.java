@@ -0,0 +1,124 @@
+package com.calendar.frontendapp.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingMethod;
+import reactor.blockhound.BlockingOperationError;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnostic mode that reports blocking calls, such as file or socket I/O, sleeps and lock
+ * waits, made on the Netty event loop and Reactor's non-blocking schedulers. One blocked
+ * event-loop thread stalls every connection it serves.
+ * <p>
+ * Enabled with {@code frontend.diagnostics.blocking-calls.enabled=true}. BlockHound is
+ * installed as soon as the environment is ready, before the server threads start. The
+ * mode {@code log} logs the stack trace of every new call site once and counts all calls;
+ * {@code fail} additionally throws {@link BlockingOperationError} into the caller.
+ * {@code frontend.diagnostics.blocking-calls.allowed} lists {@code Class#method} entries
+ * whose blocking calls are accepted. On Java 13 and later the JVM needs
+ * {@code -XX:+AllowRedefinitionToAddDeleteMethods}.
+ * <p>
+ * BlockHound instruments the JVM and cannot be removed again, so this mode is meant for
+ * load tests and local runs, not for production.
+ */
+public class BlockingCallDetector implements ApplicationListener<SpringApplicationEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingCallDetector.class);
+
+    private static final String PREFIX = "frontend.diagnostics.blocking-calls.";
+    private static final String APPLICATION_PACKAGE = "com.calendar.";
+
+    private final Set<String> callSites = ConcurrentHashMap.newKeySet();
+    private final LongAdder calls = new LongAdder();
+    private boolean failOnBlockingCall;
+    private boolean installed;
+
+    @Override
+    public void onApplicationEvent(SpringApplicationEvent event) {
+        if (event instanceof ApplicationEnvironmentPreparedEvent environmentPrepared) {
+            install(environmentPrepared.getEnvironment());
+        } else if (event instanceof ApplicationPreparedEvent applicationPrepared && installed) {
+            applicationPrepared.getApplicationContext().getBeanFactory()
+                    .registerSingleton("blockingCallDetector", this);
+        }
+    }
+
+    private synchronized void install(ConfigurableEnvironment environment) {
+        if (installed || !environment.getProperty(PREFIX + "enabled", Boolean.class, false)) {
+            return;
+        }
+        failOnBlockingCall = "fail".equalsIgnoreCase(environment.getProperty(PREFIX + "mode", "log"));
+        BlockHound.Builder builder = BlockHound.builder()
+                .loadIntegrations()
+                .blockingMethodCallback(this::report);
+        for (String allowed : environment.getProperty(PREFIX + "allowed", String[].class, new String[0])) {
+            int separator = allowed.indexOf('#');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected Class#method in " + PREFIX + "allowed: " + allowed);
+            }
+            builder.allowBlockingCallsInside(allowed.substring(0, separator).trim(), allowed.substring(separator + 1).trim());
+        }
+        try {
+            builder.install();
+        } catch (RuntimeException ex) {
+            logger.error("Blocking call detection could not be installed, is -XX:+AllowRedefinitionToAddDeleteMethods set?", ex);
+            return;
+        }
+        installed = true;
+        logger.warn("Blocking call detection is enabled (mode={}), do not run this in production",
+                failOnBlockingCall ? "fail" : "log");
+    }
+
+    private void report(BlockingMethod method) {
+        calls.increment();
+        BlockingOperationError error = new BlockingOperationError(method);
+        String callSite = method + " at " + callSite(error.getStackTrace());
+        if (callSites.add(callSite)) {
+            logger.warn("Blocking call {} on non-blocking thread {}", callSite, Thread.currentThread().getName(), error);
+        }
+        if (failOnBlockingCall) {
+            throw error;
+        }
+    }
+
+    /**
+     * The first application frame of the stack, or the first frame outside the JDK and
+     * the instrumentation when the call did not come from application code.
+     */
+    private static String callSite(StackTraceElement[] stackTrace) {
+        String fallback = null;
+        for (StackTraceElement element : stackTrace) {
+            String className = element.getClassName();
+            if (className.startsWith(APPLICATION_PACKAGE)
+                    && !className.equals(BlockingCallDetector.class.getName())) {
+                return element.toString();
+            }
+            if (fallback == null && !isInfrastructure(className)) {
+                fallback = element.toString();
+            }
+        }
+        return fallback != null ? fallback : "unknown";
+    }
+
+    private static boolean isInfrastructure(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+                || className.startsWith("reactor.blockhound.") || className.equals(BlockingCallDetector.class.getName());
+    }
+
+    /**
+     * Blocking calls seen since startup, including the call sites already logged.
+     */
+    public long getBlockingCallCount() {
+        return calls.sum();
+    }
+}
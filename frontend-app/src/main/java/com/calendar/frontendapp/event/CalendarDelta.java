@@ -0,0 +1,19 @@
+package com.calendar.frontendapp.event;
+
+/**
+ * A change to a user's calendar pushed to live subscribers.
+ *
+ * @param type    {@code created} or {@code deleted}
+ * @param eventId id of the affected event
+ * @param event   the created event, {@code null} for deletions
+ */
+public record CalendarDelta(String type, String eventId, CalendarEvent event) {
+
+    public static CalendarDelta created(CalendarEvent event) {
+        return new CalendarDelta("created", event.id(), event);
+    }
+
+    public static CalendarDelta deleted(String eventId) {
+        return new CalendarDelta("deleted", eventId, null);
+    }
+}
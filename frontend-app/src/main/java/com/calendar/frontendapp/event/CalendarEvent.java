@@ -0,0 +1,19 @@
+package com.calendar.frontendapp.event;
+
+import java.time.Instant;
+
+/**
+ * A calendar event covering the half-open interval [start, end).
+ */
+public record CalendarEvent(String id, String title, Instant start, Instant end) {
+
+    public CalendarEvent {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new IllegalArgumentException("Event end must be after its start");
+        }
+    }
+
+    public boolean overlaps(Instant from, Instant to) {
+        return start.isBefore(to) && end.isAfter(from);
+    }
+}
@@ -0,0 +1,118 @@
+package com.calendar.frontendapp.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans calendar changes out to the live subscribers of each user.
+ * All connections of a user share one multicast sink, which exists only while the user has
+ * subscribers. Every subscriber has its own bounded buffer that drops the oldest deltas when
+ * the client does not keep up, so a slow consumer never holds back the others. Streams
+ * open with a comment, carry a shared heartbeat and complete after {@code idleTimeout}
+ * without any delta.
+ */
+public class CalendarUpdateBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarUpdateBroadcaster.class);
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Flux<ServerSentEvent<CalendarDelta>> heartbeats;
+    private final int bufferSize;
+    private final Duration idleTimeout;
+
+    private final LongAdder dropped = new LongAdder();
+
+    public CalendarUpdateBroadcaster(int bufferSize, Duration heartbeatInterval, Duration idleTimeout) {
+        this.bufferSize = bufferSize;
+        this.idleTimeout = idleTimeout;
+        this.heartbeats = Flux.interval(heartbeatInterval, heartbeatInterval)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<CalendarDelta>builder().comment("heartbeat").build())
+                .share();
+    }
+
+    /**
+     * Emits the delta to the current subscribers of the user. Publishers run on event loops,
+     * so instead of retrying a contended emission they take turns on the user's channel;
+     * the lock is held only while the delta is handed to the subscribers' buffers. A delta
+     * the sink still rejects is counted as dropped.
+     */
+    public void publish(String userId, CalendarDelta delta) {
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        Sinks.EmitResult result;
+        synchronized (channel) {
+            result = channel.sink().tryEmitNext(delta);
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            dropped.increment();
+            logger.debug("Dropped calendar update {} for user {}: {}", delta.eventId(), userId, result);
+        }
+    }
+
+    public Flux<ServerSentEvent<CalendarDelta>> subscribe(String userId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(userId, (k, existing) -> {
+                Channel result = existing != null ? existing : new Channel(Sinks.many().multicast().directBestEffort());
+                result.subscribers++;
+                return result;
+            });
+            Sinks.Empty<Void> closed = Sinks.empty();
+
+            Flux<ServerSentEvent<CalendarDelta>> deltas = channel.sink().asFlux()
+                    .onBackpressureBuffer(bufferSize, delta -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                    .map(delta -> ServerSentEvent.builder(delta).id(delta.eventId()).event(delta.type()).build())
+                    .timeout(idleTimeout, Flux.empty())
+                    .doFinally(signal -> closed.tryEmitEmpty());
+
+            // the opening comment commits the response, so clients see the stream open at once
+            return Flux.merge(deltas, heartbeats.takeUntilOther(closed.asMono()))
+                    .startWith(ServerSentEvent.<CalendarDelta>builder().comment("subscribed").build())
+                    .doFinally(signal -> release(userId, channel));
+        });
+    }
+
+    public int getUserCount() {
+        return channels.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void release(String userId, Channel channel) {
+        channels.computeIfPresent(userId, (k, existing) -> {
+            if (existing != channel) {
+                return existing;
+            }
+            existing.subscribers--;
+            return existing.subscribers == 0 ? null : existing;
+        });
+    }
+
+    private static final class Channel {
+
+        private final Sinks.Many<CalendarDelta> sink;
+        // only modified inside ConcurrentHashMap.compute for the user's key
+        private int subscribers;
+
+        private Channel(Sinks.Many<CalendarDelta> sink) {
+            this.sink = sink;
+        }
+
+        private Sinks.Many<CalendarDelta> sink() {
+            return sink;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.calendar.frontendapp.event;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval tree over the events of one user.
+ * Events are kept sorted by start; the tree is implicit in that array (the root of
+ * [lo, hi) is its middle element) and every node stores the latest end of its subtree,
+ * so overlap queries skip whole subtrees that end before the range or start after it.
+ * Updates build a new index, which lets readers use an index without any locking.
+ */
+final class EventIntervalIndex {
+
+    static final EventIntervalIndex EMPTY = new EventIntervalIndex(new CalendarEvent[0]);
+
+    private static final Comparator<CalendarEvent> BY_START =
+            Comparator.comparing(CalendarEvent::start).thenComparing(CalendarEvent::id);
+
+    private final CalendarEvent[] events;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private EventIntervalIndex(CalendarEvent[] sortedEvents) {
+        this.events = sortedEvents;
+        this.starts = new long[sortedEvents.length];
+        this.ends = new long[sortedEvents.length];
+        this.maxEnds = new long[sortedEvents.length];
+        for (int i = 0; i < sortedEvents.length; i++) {
+            starts[i] = sortedEvents[i].start().toEpochMilli();
+            ends[i] = sortedEvents[i].end().toEpochMilli();
+        }
+        buildMaxEnds(0, sortedEvents.length);
+    }
+
+    static EventIntervalIndex of(List<CalendarEvent> events) {
+        CalendarEvent[] sorted = events.toArray(new CalendarEvent[0]);
+        Arrays.sort(sorted, BY_START);
+        return new EventIntervalIndex(sorted);
+    }
+
+    EventIntervalIndex with(CalendarEvent event) {
+        int position = Arrays.binarySearch(events, event, BY_START);
+        int insertion = position >= 0 ? position : -position - 1;
+        CalendarEvent[] updated = new CalendarEvent[events.length + 1];
+        System.arraycopy(events, 0, updated, 0, insertion);
+        updated[insertion] = event;
+        System.arraycopy(events, insertion, updated, insertion + 1, events.length - insertion);
+        return new EventIntervalIndex(updated);
+    }
+
+    EventIntervalIndex without(String eventId) {
+        for (int i = 0; i < events.length; i++) {
+            if (events[i].id().equals(eventId)) {
+                CalendarEvent[] updated = new CalendarEvent[events.length - 1];
+                System.arraycopy(events, 0, updated, 0, i);
+                System.arraycopy(events, i + 1, updated, i, events.length - i - 1);
+                return new EventIntervalIndex(updated);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns the events overlapping [from, to), ordered by start.
+     */
+    List<CalendarEvent> overlapping(Instant from, Instant to) {
+        if (events.length == 0) {
+            return Collections.emptyList();
+        }
+        List<CalendarEvent> result = new ArrayList<>();
+        collect(0, events.length, from.toEpochMilli(), to.toEpochMilli(), result);
+        return result;
+    }
+
+    List<CalendarEvent> events() {
+        return Collections.unmodifiableList(Arrays.asList(events));
+    }
+
+    int size() {
+        return events.length;
+    }
+
+    private void collect(int lo, int hi, long from, long to, List<CalendarEvent> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] <= from) {
+            return;
+        }
+        collect(lo, mid, from, to, result);
+        if (starts[mid] < to) {
+            if (ends[mid] > from) {
+                result.add(events[mid]);
+            }
+            collect(mid + 1, hi, from, to, result);
+        }
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long maxEnd = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = maxEnd;
+        return maxEnd;
+    }
+}
@@ -0,0 +1,81 @@
+package com.calendar.frontendapp.event;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, per-user calendar event store.
+ * Each user's events live in an immutable {@link EventIntervalIndex}; writers replace it
+ * atomically per user (writes to different users do not contend) and readers never lock.
+ */
+public class EventStore {
+
+    private final Map<String, EventIntervalIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * Returns the events of the user overlapping [from, to), ordered by start.
+     */
+    public List<CalendarEvent> find(String userId, Instant from, Instant to) {
+        return indexes.getOrDefault(userId, EventIntervalIndex.EMPTY).overlapping(from, to);
+    }
+
+    public CalendarEvent add(String userId, NewCalendarEvent newEvent) {
+        if (newEvent.title() == null || newEvent.title().isBlank()) {
+            throw new IllegalArgumentException("Event title must not be empty");
+        }
+        CalendarEvent event = new CalendarEvent(UUID.randomUUID().toString(), newEvent.title(), newEvent.start(), newEvent.end());
+        indexes.compute(userId, (k, index) -> (index != null ? index : EventIntervalIndex.EMPTY).with(event));
+        modifications.incrementAndGet();
+        return event;
+    }
+
+    public boolean remove(String userId, String eventId) {
+        AtomicBoolean removed = new AtomicBoolean();
+        indexes.computeIfPresent(userId, (k, index) -> {
+            EventIntervalIndex updated = index.without(eventId);
+            removed.set(updated != index);
+            return updated.size() == 0 ? null : updated;
+        });
+        if (removed.get()) {
+            modifications.incrementAndGet();
+        }
+        return removed.get();
+    }
+
+    /**
+     * Number of writes since the store was created, used to detect changes between snapshots.
+     */
+    public long modifications() {
+        return modifications.get();
+    }
+
+    public int size() {
+        int size = 0;
+        for (EventIntervalIndex index : indexes.values()) {
+            size += index.size();
+        }
+        return size;
+    }
+
+    Map<String, List<CalendarEvent>> snapshot() {
+        Map<String, List<CalendarEvent>> snapshot = new HashMap<>();
+        indexes.forEach((userId, index) -> snapshot.put(userId, index.events()));
+        return snapshot;
+    }
+
+    void restore(Map<String, List<CalendarEvent>> snapshot) {
+        indexes.clear();
+        snapshot.forEach((userId, events) -> {
+            if (!events.isEmpty()) {
+                indexes.put(userId, EventIntervalIndex.of(events));
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.calendar.frontendapp.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class EventStoreConfig {
+
+    @Bean
+    public EventStore eventStore() {
+        return new EventStore();
+    }
+
+    @Bean
+    public CalendarUpdateBroadcaster calendarUpdateBroadcaster(
+            @Value("${frontend.calendar.updates.buffer-size:32}") int bufferSize,
+            @Value("${frontend.calendar.updates.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${frontend.calendar.updates.idle-timeout:5m}") Duration idleTimeout) {
+        return new CalendarUpdateBroadcaster(bufferSize, heartbeatInterval, idleTimeout);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "frontend.events.snapshot-file")
+    public EventStoreSnapshotter eventStoreSnapshotter(EventStore eventStore, ObjectMapper objectMapper,
+                                                       @Value("${frontend.events.snapshot-file}") String snapshotFile,
+                                                       @Value("${frontend.events.snapshot-interval:30s}") Duration interval,
+                                                       Scheduler blockingScheduler) {
+        return new EventStoreSnapshotter(eventStore, objectMapper, Path.of(snapshotFile), interval, blockingScheduler);
+    }
+}
@@ -0,0 +1,88 @@
+package com.calendar.frontendapp.event;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically writes the event store to a local file and restores it on startup.
+ * Snapshots are only written when the store changed, and replace the previous file atomically.
+ */
+public class EventStoreSnapshotter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventStoreSnapshotter.class);
+
+    private static final TypeReference<Map<String, List<CalendarEvent>>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+
+    private final EventStore eventStore;
+    private final ObjectMapper objectMapper;
+    private final Path snapshotFile;
+    private final Duration interval;
+    private final Scheduler scheduler;
+
+    private long snapshotModifications = -1;
+    private Disposable scheduledSnapshots;
+
+    /**
+     * @param scheduler where the snapshots are written, must allow blocking
+     */
+    public EventStoreSnapshotter(EventStore eventStore, ObjectMapper objectMapper, Path snapshotFile, Duration interval,
+                                 Scheduler scheduler) {
+        this.eventStore = eventStore;
+        this.objectMapper = objectMapper;
+        this.snapshotFile = snapshotFile;
+        this.interval = interval;
+        this.scheduler = scheduler;
+    }
+
+    public void start() throws IOException {
+        if (Files.exists(snapshotFile)) {
+            eventStore.restore(objectMapper.readValue(snapshotFile.toFile(), SNAPSHOT_TYPE));
+            logger.info("Restored {} calendar events from {}", eventStore.size(), snapshotFile);
+        }
+        snapshotModifications = eventStore.modifications();
+        scheduledSnapshots = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::snapshotIfChanged).subscribeOn(scheduler))
+                .subscribe();
+    }
+
+    public void close() {
+        if (scheduledSnapshots != null) {
+            scheduledSnapshots.dispose();
+        }
+        snapshotIfChanged();
+    }
+
+    synchronized void snapshotIfChanged() {
+        long modifications = eventStore.modifications();
+        if (modifications == snapshotModifications) {
+            return;
+        }
+        try {
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, snapshotFile.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), eventStore.snapshot());
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotModifications = modifications;
+            logger.debug("Wrote calendar event snapshot to {}", snapshotFile);
+        } catch (IOException ex) {
+            logger.error("Failed to write calendar event snapshot to {}: {}", snapshotFile, ex.getMessage(), ex);
+        }
+    }
+}
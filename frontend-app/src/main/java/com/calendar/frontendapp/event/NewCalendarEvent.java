@@ -0,0 +1,9 @@
+package com.calendar.frontendapp.event;
+
+import java.time.Instant;
+
+/**
+ * Request body for creating a calendar event.
+ */
+public record NewCalendarEvent(String title, Instant start, Instant end) {
+}
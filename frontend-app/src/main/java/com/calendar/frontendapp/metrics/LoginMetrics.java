@@ -0,0 +1,145 @@
+package com.calendar.frontendapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters of the OAuth2 login pipeline. All meters are registered up front with
+ * a fixed set of tag values, so recording only looks up a field. Callers take a start time
+ * from {@link #start()} and pass it to the matching record method; when metrics are
+ * disabled, both are no-ops that neither read the clock nor allocate.
+ */
+public class LoginMetrics {
+
+    public static final LoginMetrics DISABLED = new LoginMetrics(null);
+
+    public enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, ERROR;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final boolean enabled;
+
+    private final Timer authorizeUrl;
+    private final Timer callbackSuccess;
+    private final Timer callbackError;
+    private final Map<Outcome, Timer> tokenRequest = new EnumMap<>(Outcome.class);
+    private final Map<Outcome, Timer> parRequest = new EnumMap<>(Outcome.class);
+    private final Timer dpopSign;
+    private final Timer jwtDecodeCacheHit;
+    private final Timer jwtDecodeCacheMiss;
+    private final Counter roleRejected;
+
+    /**
+     * @param registry the registry to register the meters in, {@code null} to disable metrics
+     */
+    public LoginMetrics(MeterRegistry registry) {
+        this.enabled = registry != null;
+        if (!enabled) {
+            authorizeUrl = callbackSuccess = callbackError = dpopSign = jwtDecodeCacheHit = jwtDecodeCacheMiss = null;
+            roleRejected = null;
+            return;
+        }
+        authorizeUrl = Timer.builder("login.authorize.url")
+                .description("Building the authorization URL, including PKCE and state generation")
+                .register(registry);
+        callbackSuccess = callbackTimer(registry, Outcome.SUCCESS);
+        callbackError = callbackTimer(registry, Outcome.ERROR);
+        for (Outcome outcome : Outcome.values()) {
+            tokenRequest.put(outcome, Timer.builder("login.token.request")
+                    .description("Latency of the token endpoint")
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+            parRequest.put(outcome, Timer.builder("login.par.request")
+                    .description("Latency of the pushed authorization request endpoint")
+                    .tag("outcome", outcome.tag)
+                    .register(registry));
+        }
+        dpopSign = Timer.builder("login.dpop.sign")
+                .description("Signing of DPoP proofs")
+                .register(registry);
+        jwtDecodeCacheHit = jwtDecodeTimer(registry, "hit");
+        jwtDecodeCacheMiss = jwtDecodeTimer(registry, "miss");
+        roleRejected = Counter.builder("login.role.rejected")
+                .description("Sessions rejected for missing the required role")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the start time to pass to a record method, 0 when metrics are disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void authorizeUrl(long start) {
+        if (enabled) {
+            record(authorizeUrl, start);
+        }
+    }
+
+    public void callback(long start, boolean success) {
+        if (enabled) {
+            record(success ? callbackSuccess : callbackError, start);
+        }
+    }
+
+    public void tokenRequest(long start, Outcome outcome) {
+        if (enabled) {
+            record(tokenRequest.get(outcome), start);
+        }
+    }
+
+    public void parRequest(long start, Outcome outcome) {
+        if (enabled) {
+            record(parRequest.get(outcome), start);
+        }
+    }
+
+    public void dpopSign(long start) {
+        if (enabled) {
+            record(dpopSign, start);
+        }
+    }
+
+    public void jwtDecode(long start, boolean cacheHit) {
+        if (enabled) {
+            record(cacheHit ? jwtDecodeCacheHit : jwtDecodeCacheMiss, start);
+        }
+    }
+
+    public void roleRejected() {
+        if (enabled) {
+            roleRejected.increment();
+        }
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer callbackTimer(MeterRegistry registry, Outcome outcome) {
+        return Timer.builder("login.callback")
+                .description("Handling of the authorization callback, including the token exchange")
+                .tag("outcome", outcome.tag)
+                .register(registry);
+    }
+
+    private static Timer jwtDecodeTimer(MeterRegistry registry, String cache) {
+        return Timer.builder("login.jwt.decode")
+                .description("Decoding and validation of session access tokens")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
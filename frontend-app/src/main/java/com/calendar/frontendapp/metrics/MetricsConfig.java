@@ -0,0 +1,125 @@
+package com.calendar.frontendapp.metrics;
+
+import com.calendar.frontendapp.calendar.CalendarResponseCache;
+import com.calendar.frontendapp.diagnostics.BlockingCallDetector;
+import com.calendar.frontendapp.event.CalendarUpdateBroadcaster;
+import com.calendar.frontendapp.security.SessionAuthenticationFilter;
+import com.calendar.frontendapp.security.authz.PolicyDecisionCache;
+import com.calendar.frontendapp.security.oauth2.introspection.CachingOpaqueTokenIntrospector;
+import com.calendar.frontendapp.security.ratelimit.RateLimitFilter;
+import com.calendar.frontendapp.security.session.SessionRegistry;
+import com.calendar.frontendapp.security.tenant.TenantRegistry;
+import com.calendar.frontendapp.tracing.JsonLinesSpanReporter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class MetricsConfig {
+
+    @Value("${frontend.metrics.login.enabled:true}")
+    private boolean loginMetricsEnabled;
+
+    @Bean
+    public LoginMetrics loginMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (!loginMetricsEnabled || registry == null) {
+            return LoginMetrics.DISABLED;
+        }
+        return new LoginMetrics(registry);
+    }
+
+    /**
+     * Exposes the counters the filters and caches already keep. The meters read them
+     * when scraped, so the request path is not touched.
+     */
+    @Bean
+    public MeterBinder frontendMeterBinder(ObjectProvider<RateLimitFilter> rateLimitFilter,
+                                           ObjectProvider<ReactiveOpaqueTokenIntrospector> introspector,
+                                           ObjectProvider<SessionAuthenticationFilter> sessionAuthenticationFilter,
+                                           ObjectProvider<PolicyDecisionCache> policyDecisionCache,
+                                           ObjectProvider<TenantRegistry> tenantRegistry,
+                                           ObjectProvider<SessionRegistry> sessionRegistry,
+                                           ObjectProvider<CalendarResponseCache> calendarResponseCache,
+                                           ObjectProvider<CalendarUpdateBroadcaster> calendarUpdateBroadcaster,
+                                           ObjectProvider<JsonLinesSpanReporter> spanReporter,
+                                           ObjectProvider<BlockingCallDetector> blockingCallDetector) {
+        return registry -> {
+            rateLimitFilter.ifAvailable(filter -> {
+                counter(registry, "ratelimit.requests", "Requests checked by the rate limiter", filter,
+                        RateLimitFilter::getAllowedCount, "result", "allowed");
+                counter(registry, "ratelimit.requests", "Requests checked by the rate limiter", filter,
+                        RateLimitFilter::getRejectedCount, "result", "rejected");
+            });
+            introspector.ifAvailable(bean -> {
+                if (bean instanceof CachingOpaqueTokenIntrospector cache) {
+                    counter(registry, "introspection.cache.requests", "Token introspection cache lookups", cache,
+                            CachingOpaqueTokenIntrospector::getHitCount, "result", "hit");
+                    counter(registry, "introspection.cache.requests", "Token introspection cache lookups", cache,
+                            CachingOpaqueTokenIntrospector::getMissCount, "result", "miss");
+                    gauge(registry, "introspection.cache.size", "Cached introspection results", cache,
+                            CachingOpaqueTokenIntrospector::size);
+                }
+            });
+            sessionAuthenticationFilter.ifAvailable(filter -> {
+                counter(registry, "session.filter.requests", "Requests seen by the session authentication filter",
+                        filter, f -> f.getRequestCount() - f.getSkippedCount(), "path", "session");
+                counter(registry, "session.filter.requests", "Requests seen by the session authentication filter",
+                        filter, SessionAuthenticationFilter::getSkippedCount, "path", "fast");
+            });
+            policyDecisionCache.ifAvailable(cache -> {
+                counter(registry, "policy.cache.requests", "Policy decision cache lookups", cache,
+                        PolicyDecisionCache::getHitCount, "result", "hit");
+                counter(registry, "policy.cache.requests", "Policy decision cache lookups", cache,
+                        PolicyDecisionCache::getMissCount, "result", "miss");
+                gauge(registry, "policy.cache.size", "Cached policy decisions", cache, PolicyDecisionCache::size);
+            });
+            tenantRegistry.ifAvailable(tenants -> {
+                gauge(registry, "tenants.active", "Tenants held in memory", tenants, TenantRegistry::size);
+                counter(registry, "tenants.evicted", "Tenants evicted from memory", tenants,
+                        TenantRegistry::getEvictedCount);
+            });
+            sessionRegistry.ifAvailable(sessions ->
+                    gauge(registry, "sessions.registered", "Sessions revocable by back-channel logout", sessions,
+                            SessionRegistry::size));
+            calendarResponseCache.ifAvailable(cache ->
+                    gauge(registry, "calendar.cache.size", "Cached calendar responses", cache,
+                            CalendarResponseCache::size));
+            calendarUpdateBroadcaster.ifAvailable(broadcaster -> {
+                gauge(registry, "calendar.updates.users", "Users subscribed to calendar updates", broadcaster,
+                        CalendarUpdateBroadcaster::getUserCount);
+                counter(registry, "calendar.updates.dropped", "Calendar updates dropped for slow subscribers",
+                        broadcaster, CalendarUpdateBroadcaster::getDroppedCount);
+            });
+            spanReporter.ifAvailable(reporter ->
+                    counter(registry, "tracing.export.dropped", "Spans dropped because the export queue was full",
+                            reporter, JsonLinesSpanReporter::getDroppedCount));
+            blockingCallDetector.ifAvailable(detector ->
+                    counter(registry, "diagnostics.blocking.calls", "Blocking calls on non-blocking threads",
+                            detector, BlockingCallDetector::getBlockingCallCount));
+        };
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, String description, T obj,
+                                    ToDoubleFunction<T> count, String... tags) {
+        FunctionCounter.builder(name, obj, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static <T> void gauge(MeterRegistry registry, String name, String description, T obj,
+                                  ToDoubleFunction<T> value) {
+        Gauge.builder(name, obj, value)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.calendar.frontendapp.scheduling;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Schedulers for blocking work, such as file I/O, that must stay off the event loop.
+ * <p>
+ * On Java 21 and later every task can run on its own virtual thread, so a blocked task
+ * only parks its virtual thread and there is no pool size to tune. The application is
+ * built for Java 17, therefore virtual threads are created through reflection.
+ */
+public final class BlockingSchedulers {
+
+    private BlockingSchedulers() {
+    }
+
+    /**
+     * @return {@code true} when the running JVM supports virtual threads
+     */
+    public static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * @param name prefix of the thread names
+     * @return a scheduler running every task on a new virtual thread, empty before Java 21
+     */
+    public static Optional<Scheduler> virtualThreads(String name) {
+        if (!virtualThreadsAvailable()) {
+            return Optional.empty();
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            ExecutorService executor = (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+            return Optional.of(Schedulers.fromExecutorService(executor, name));
+        } catch (InvocationTargetException ex) {
+            throw new IllegalStateException("Failed to create virtual thread scheduler", ex.getCause());
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to create virtual thread scheduler", ex);
+        }
+    }
+
+    /**
+     * @param name prefix of the thread names
+     * @return a dedicated bounded elastic scheduler with Reactor's default thread cap and queue size
+     */
+    public static Scheduler boundedElastic(String name) {
+        return Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, name);
+    }
+}
@@ -0,0 +1,39 @@
+package com.calendar.frontendapp.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Provides the {@code blockingScheduler} that blocking operations are moved to with
+ * {@code subscribeOn} or {@code publishOn}.
+ * <p>
+ * With {@code frontend.blocking.virtual-threads=true} (see the {@code java21} profile) and
+ * a Java 21 runtime, it runs every task on a virtual thread. Otherwise, and when the JVM
+ * is older, it is a bounded elastic scheduler.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulingConfig.class);
+
+    @Value("${frontend.blocking.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler() {
+        if (virtualThreads) {
+            Scheduler scheduler = BlockingSchedulers.virtualThreads("blocking").orElse(null);
+            if (scheduler != null) {
+                logger.info("Blocking operations run on virtual threads");
+                return scheduler;
+            }
+            logger.warn("frontend.blocking.virtual-threads needs Java 21 or later, running on Java {}, "
+                    + "falling back to a bounded elastic scheduler", Runtime.version().feature());
+        }
+        return BlockingSchedulers.boundedElastic("blocking");
+    }
+}
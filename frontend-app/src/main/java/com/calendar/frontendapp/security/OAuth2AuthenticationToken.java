@@ -12,14 +12,16 @@ import java.util.Collection;
 public class OAuth2AuthenticationToken implements Authentication {
 
     private final String name;
+    private final String subject;
     private final String accessToken;
     private final String tokenType;
     private final Collection<? extends GrantedAuthority> authorities;
     private boolean authenticated;
 
-    public OAuth2AuthenticationToken(String name, String accessToken, String tokenType,
+    public OAuth2AuthenticationToken(String name, String subject, String accessToken, String tokenType,
                                      Collection<? extends GrantedAuthority> authorities) {
         this.name = name;
+        this.subject = subject;
         this.accessToken = accessToken;
         this.tokenType = tokenType;
         this.authorities = authorities;
@@ -61,6 +63,10 @@ public class OAuth2AuthenticationToken implements Authentication {
         return name;
     }
 
+    public String getSubject() {
+        return subject;
+    }
+
     public String getAccessToken() {
         return accessToken;
     }
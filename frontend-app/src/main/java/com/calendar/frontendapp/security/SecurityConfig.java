@@ -1,6 +1,16 @@
 package com.calendar.frontendapp.security;
 
+import com.calendar.frontendapp.metrics.LoginMetrics;
+import com.calendar.frontendapp.security.authz.UmaPolicyEnforcer;
+import com.calendar.frontendapp.security.oauth2.CachingReactiveJwtDecoder;
+import com.calendar.frontendapp.security.oauth2.introspection.CachingOpaqueTokenIntrospector;
+import com.calendar.frontendapp.security.oauth2.introspection.IntrospectionReactiveJwtDecoder;
+import com.calendar.frontendapp.security.ratelimit.RateLimitFilter;
+import com.calendar.frontendapp.security.ratelimit.TokenBucketRateLimiter;
+import com.calendar.frontendapp.security.session.SessionRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -10,8 +20,14 @@ import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoders;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.SpringReactiveOpaqueTokenIntrospector;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
@@ -22,22 +38,52 @@ public class SecurityConfig {
     @Value("${frontend.authorization.role:#{null}}")
     private String checkedRole;
 
+    @Value("${frontend.fast-path.patterns:/assets/**,/favicon.ico,/actuator/health,/actuator/health/**,/actuator/prometheus}")
+    private List<String> fastPathPatterns;
+
+    @Value("${frontend.session.jwt-cache.max-entries:10000}")
+    private int jwtCacheMaxEntries;
+
+    @Value("${frontend.session.registry-sweep-interval:60s}")
+    private Duration sessionRegistrySweepInterval;
+
     @Bean
-    public SessionAuthenticationFilter sessionAuthenticationFilter(ReactiveJwtDecoder reactiveJwtDecoder) {
-        return new SessionAuthenticationFilter(reactiveJwtDecoder, checkedRole);
+    public SessionAuthenticationFilter sessionAuthenticationFilter(ReactiveJwtDecoder reactiveJwtDecoder,
+                                                                   ObjectProvider<ReactiveOpaqueTokenIntrospector> introspector,
+                                                                   LoginMetrics loginMetrics) {
+        ReactiveOpaqueTokenIntrospector opaqueTokenIntrospector = introspector.getIfAvailable();
+        if (opaqueTokenIntrospector != null) {
+            // introspection results are cached by the introspector itself
+            return new SessionAuthenticationFilter(new IntrospectionReactiveJwtDecoder(opaqueTokenIntrospector), checkedRole,
+                    fastPathPatterns, loginMetrics);
+        }
+        return new SessionAuthenticationFilter(new CachingReactiveJwtDecoder(reactiveJwtDecoder, jwtCacheMaxEntries, loginMetrics),
+                checkedRole, fastPathPatterns, loginMetrics);
     }
 
     @Bean
     @Order(1)
-    public SecurityWebFilterChain apiSecurityFilterChain(ServerHttpSecurity http) throws Exception {
+    public SecurityWebFilterChain apiSecurityFilterChain(ServerHttpSecurity http,
+                                                         ObjectProvider<ReactiveOpaqueTokenIntrospector> introspector,
+                                                         ObjectProvider<UmaPolicyEnforcer> policyEnforcer) throws Exception {
+        ReactiveOpaqueTokenIntrospector opaqueTokenIntrospector = introspector.getIfAvailable();
+        UmaPolicyEnforcer umaPolicyEnforcer = policyEnforcer.getIfAvailable();
         http
-                .authorizeExchange(exchanges -> exchanges
-                        .pathMatchers("/api/**").authenticated()
-                        .anyExchange().permitAll()
-                )
-                .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(Customizer.withDefaults())
-                )
+                .authorizeExchange(exchanges -> {
+                    if (umaPolicyEnforcer != null) {
+                        exchanges.pathMatchers("/api/**").access(umaPolicyEnforcer);
+                    } else {
+                        exchanges.pathMatchers("/api/**").authenticated();
+                    }
+                    exchanges.anyExchange().permitAll();
+                })
+                .oauth2ResourceServer(oauth2 -> {
+                    if (opaqueTokenIntrospector != null) {
+                        oauth2.opaqueToken(opaqueToken -> opaqueToken.introspector(opaqueTokenIntrospector));
+                    } else {
+                        oauth2.jwt(Customizer.withDefaults());
+                    }
+                })
                 .csrf(csrf -> csrf.disable());
         return http.build();
     }
@@ -47,7 +93,7 @@ public class SecurityConfig {
                                                          SessionAuthenticationFilter sessionAuthenticationFilter) {
         http
                 .authorizeExchange(exchanges -> exchanges
-                        .pathMatchers("/", "/login", "/oauth2/authorize", "/oauth2/callback").permitAll()
+                        .pathMatchers("/", "/login", "/oauth2/authorize", "/oauth2/callback", "/oauth2/backchannel-logout").permitAll()
                         .anyExchange().authenticated()
                 )
                 .addFilterBefore(sessionAuthenticationFilter, SecurityWebFiltersOrder.AUTHENTICATION);
@@ -60,5 +106,35 @@ public class SecurityConfig {
         return ReactiveJwtDecoders.fromIssuerLocation(issuerUri);
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "frontend.token-validation", havingValue = "introspection")
+    public ReactiveOpaqueTokenIntrospector reactiveOpaqueTokenIntrospector(
+            @Value("${spring.oauth2.resourceserver.opaque-token.introspection-uri}") String introspectionUri,
+            @Value("${spring.oauth2.resourceserver.opaque-token.client-id}") String clientId,
+            @Value("${spring.oauth2.resourceserver.opaque-token.client-secret}") String clientSecret,
+            @Value("${frontend.introspection.cache.max-ttl:5m}") Duration maxTtl,
+            @Value("${frontend.introspection.cache.negative-ttl:10s}") Duration negativeTtl,
+            @Value("${frontend.introspection.cache.max-entries:10000}") int maxEntries) {
+        return new CachingOpaqueTokenIntrospector(
+                new SpringReactiveOpaqueTokenIntrospector(introspectionUri, clientId, clientSecret),
+                maxTtl, negativeTtl, maxEntries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "frontend.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitFilter rateLimitFilter(
+            @Value("${frontend.rate-limit.paths:/oauth2/authorize,/oauth2/callback}") List<String> paths,
+            @Value("${frontend.rate-limit.permits-per-second:5}") double permitsPerSecond,
+            @Value("${frontend.rate-limit.burst:20}") int burst,
+            @Value("${frontend.rate-limit.max-keys:100000}") int maxKeys,
+            @Value("${frontend.rate-limit.key-by-session:false}") boolean keyBySession) {
+        return new RateLimitFilter(new TokenBucketRateLimiter(permitsPerSecond, burst, maxKeys),
+                new HashSet<>(paths), keyBySession);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public SessionRegistry sessionRegistry() {
+        return new SessionRegistry(sessionRegistrySweepInterval);
+    }
 
 }
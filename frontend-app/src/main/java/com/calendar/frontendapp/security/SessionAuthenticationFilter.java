@@ -1,5 +1,7 @@
 package com.calendar.frontendapp.security;
 
+import com.calendar.frontendapp.metrics.LoginMetrics;
+import com.calendar.frontendapp.security.oauth2.AccessToken;
 import org.apache.logging.log4j.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,11 +13,16 @@ import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.WebSession;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SessionAuthenticationFilter implements WebFilter {
 
@@ -25,28 +32,53 @@ public class SessionAuthenticationFilter implements WebFilter {
 
     private String checkedRole;
 
-    public SessionAuthenticationFilter(ReactiveJwtDecoder reactiveJwtDecoder, String checkedRole) {
+    private final List<PathPattern> fastPathPatterns;
+
+    private final LoginMetrics loginMetrics;
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+
+    /**
+     * @param fastPathPatterns routes such as static assets and health checks that pass
+     *                         through without any session access
+     */
+    public SessionAuthenticationFilter(ReactiveJwtDecoder reactiveJwtDecoder, String checkedRole,
+                                       List<String> fastPathPatterns, LoginMetrics loginMetrics) {
         this.reactiveJwtDecoder = reactiveJwtDecoder;
         this.checkedRole = checkedRole;
+        this.loginMetrics = loginMetrics;
+        this.fastPathPatterns = fastPathPatterns.stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String path = exchange.getRequest().getURI().getPath();
+        requestCount.increment();
+        for (PathPattern pattern : fastPathPatterns) {
+            if (pattern.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+                skippedCount.increment();
+                return chain.filter(exchange);
+            }
+        }
+
+        // relative to the tenant prefix, if any
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
 
         // Skip filtering for public endpoints
-        if (path.equals("/") || path.equals("/login") || path.startsWith("/oauth2/callback") || path.equals("/oauth2/authorize")) {
+        if (path.equals("/") || path.equals("/login") || path.startsWith("/oauth2/callback") || path.equals("/oauth2/authorize")
+                || path.equals("/oauth2/backchannel-logout")) {
+            skippedCount.increment();
             return chain.filter(exchange);
         }
 
         return exchange.getSession()
                 .flatMap(session -> {
-                    String accessToken = (String) session.getAttributes().get("access_token");
-                    String tokenType = (String) session.getAttributes().get("token_type");
-
-                    if (accessToken != null && !accessToken.isEmpty()) {
+                    AccessToken accessToken = unexpiredAccessToken(session);
+                    if (accessToken != null) {
                         // Decode the JWT and extract claims
-                        return reactiveJwtDecoder.decode(accessToken)
+                        return reactiveJwtDecoder.decode(accessToken.value())
                                 .flatMap(jwt -> {
                                     String username = extractUsername(jwt);
 
@@ -54,17 +86,19 @@ public class SessionAuthenticationFilter implements WebFilter {
                                     List<String> roles = extractRoles(jwt);
                                     if (Strings.isNotBlank(checkedRole) && !roles.contains(checkedRole)) {
                                         logger.warn("User '{}' does not have required role '{}'", username, checkedRole);
+                                        loginMetrics.roleRejected();
                                         exchange.getResponse().setStatusCode(org.springframework.http.HttpStatus.FORBIDDEN);
                                         exchange.getResponse().getHeaders().setLocation(
-                                                exchange.getRequest().getURI().resolve("/login")
+                                                exchange.getRequest().getURI().resolve(exchange.getRequest().getPath().contextPath().value() + "/login")
                                         );
                                         return exchange.getResponse().setComplete();
                                     }
 
                                     OAuth2AuthenticationToken authToken = new OAuth2AuthenticationToken(
                                             username,
-                                            accessToken,
-                                            tokenType != null ? tokenType : "Bearer",
+                                            jwt.getSubject(),
+                                            accessToken.value(),
+                                            accessToken.type(),
                                             java.util.Collections.emptyList()
                                     );
 
@@ -82,17 +116,49 @@ public class SessionAuthenticationFilter implements WebFilter {
                                     return exchange.getResponse().setComplete();
                                 });
                     } else {
-                        logger.info("No access token found in session, redirecting to login");
+                        logger.info("No valid access token found in session, redirecting to login");
                         exchange.getResponse().setStatusCode(org.springframework.http.HttpStatus.FOUND);
                         exchange.getResponse().getHeaders().setLocation(
-                                exchange.getRequest().getURI().resolve("/login")
+                                exchange.getRequest().getURI().resolve(exchange.getRequest().getPath().contextPath().value() + "/login")
                         );
                         return exchange.getResponse().setComplete();
                     }
                 });
     }
 
-    private String extractUsername(Jwt jwt) {
+    /**
+     * @return the access token of the session, {@code null} when there is none or it expired
+     */
+    private static AccessToken unexpiredAccessToken(WebSession session) {
+        AccessToken accessToken = AccessToken.from(session);
+        if (accessToken != null && accessToken.isExpired(Instant.now())) {
+            logger.info("Access token in session expired at {}", accessToken.expiresAt());
+            session.getAttributes().remove(AccessToken.SESSION_ATTRIBUTE);
+            return null;
+        }
+        return accessToken;
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * @return the number of requests passed on without resolving the session
+     */
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    /**
+     * @return the fraction of requests that skipped session resolution, 0 before the first request
+     */
+    public double getSkippedRatio() {
+        long requests = requestCount.sum();
+        return requests == 0 ? 0 : (double) skippedCount.sum() / requests;
+    }
+
+    static String extractUsername(Jwt jwt) {
         String name = jwt.getClaimAsString("name");
         if (name != null && !name.isEmpty()) {
             return name;
@@ -108,7 +174,7 @@ public class SessionAuthenticationFilter implements WebFilter {
     }
 
     @SuppressWarnings("unchecked")
-    private List<String> extractRoles(Jwt jwt) {
+    static List<String> extractRoles(Jwt jwt) {
         List<String> roles = new ArrayList<>();
 
         try {
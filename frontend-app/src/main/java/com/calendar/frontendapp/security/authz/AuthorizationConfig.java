@@ -0,0 +1,47 @@
+package com.calendar.frontendapp.security.authz;
+
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Applies the {@code keycloak.policy-enforcer-config} to {@code /api/**}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "frontend.policy-enforcer.enabled", havingValue = "true")
+public class AuthorizationConfig {
+
+    @Value("${spring.oauth2.client.id}")
+    private String clientId;
+
+    @Value("${frontend.policy-enforcer.cache.max-ttl:5m}")
+    private Duration maxTtl;
+
+    @Value("${frontend.policy-enforcer.cache.negative-ttl:30s}")
+    private Duration negativeTtl;
+
+    @Value("${frontend.policy-enforcer.cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Bean
+    public PolicyDecisionCache policyDecisionCache() {
+        return new PolicyDecisionCache(maxTtl, negativeTtl, maxEntries);
+    }
+
+    @Bean
+    public UmaPolicyEnforcer umaPolicyEnforcer(Environment environment, PolicyDecisionCache policyDecisionCache,
+                                               WebClient webClient) {
+        PolicyEnforcerConfig config = Binder.get(environment)
+                .bind("keycloak.policy-enforcer-config", PolicyEnforcerConfig.class)
+                .orElseGet(PolicyEnforcerConfig::new);
+        String audience = config.getResource() != null ? config.getResource() : clientId;
+        return new UmaPolicyEnforcer(new PolicyEnforcerPaths(config), policyDecisionCache, webClient, audience);
+    }
+}
@@ -0,0 +1,112 @@
+package com.calendar.frontendapp.security.authz;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches authorization decisions per issuer, subject, client, token scope, resource and
+ * scope, so a decision evaluated for one client or a broader token is not reused for
+ * another. Grants are kept until the token they were evaluated for expires, capped at
+ * {@code maxTtl}, so revoked permissions take effect within that time; denials are kept
+ * for {@code negativeTtl} at most, so permissions granted later take effect quickly.
+ * Concurrent identical decisions share a single evaluation. When the cache holds
+ * {@code maxEntries} decisions, the least valuable ones are evicted.
+ */
+public class PolicyDecisionCache {
+
+    private final Duration maxTtl;
+    private final Duration negativeTtl;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Cache<Key, CacheEntry> cache;
+    private final Map<Key, Mono<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PolicyDecisionCache(Duration maxTtl, Duration negativeTtl, int maxEntries) {
+        this.maxTtl = maxTtl;
+        this.negativeTtl = negativeTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new EntryExpiry())
+                .build();
+    }
+
+    /**
+     * @param tokenExpiry expiry of the token the decision is evaluated for
+     * @param evaluation  evaluates the decision on a cache miss
+     * @return whether the permission is granted
+     */
+    public Mono<Boolean> decide(Key key, Instant tokenExpiry, Supplier<Mono<Boolean>> evaluation) {
+        CacheEntry entry = cache.getIfPresent(key);
+        if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+            hits.increment();
+            return Mono.just(entry.granted());
+        }
+        misses.increment();
+        return inFlight.computeIfAbsent(key, k -> evaluation.get()
+                .doOnNext(granted -> cache.put(k, new CacheEntry(granted, expiry(granted, tokenExpiry))))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache());
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    private Instant expiry(boolean granted, Instant tokenExpiry) {
+        Instant cap = clock.instant().plus(granted ? maxTtl : negativeTtl);
+        return tokenExpiry.isBefore(cap) ? tokenExpiry : cap;
+    }
+
+    /**
+     * @param clientId   the {@code azp} of the token the decision is evaluated for
+     * @param tokenScope the {@code scope} of that token
+     */
+    public record Key(String issuer, String subject, String clientId, String tokenScope, String resource,
+                      String scope) {
+    }
+
+    private record CacheEntry(boolean granted, Instant expiresAt) {
+    }
+
+    /**
+     * Expires every entry at its own {@code expiresAt}.
+     */
+    private final class EntryExpiry implements Expiry<Key, CacheEntry> {
+
+        @Override
+        public long expireAfterCreate(Key key, CacheEntry entry, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), entry.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, CacheEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, CacheEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.calendar.frontendapp.security.authz;
+
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig;
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig.EnforcementMode;
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig.MethodConfig;
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig.PathConfig;
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig.ScopeEnforcementMode;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Maps requests to Keycloak resources and scopes according to the static paths of the
+ * {@code keycloak.policy-enforcer-config}. Keycloak wildcards ({@code /api/*}) match
+ * every path below the prefix; the most specific pattern wins.
+ */
+public class PolicyEnforcerPaths {
+
+    private static final String ANY = "*";
+
+    private final EnforcementMode enforcementMode;
+    private final boolean httpMethodAsScope;
+    private final List<Entry> entries = new ArrayList<>();
+
+    public PolicyEnforcerPaths(PolicyEnforcerConfig config) {
+        this.enforcementMode = config.getEnforcementMode() != null ? config.getEnforcementMode() : EnforcementMode.ENFORCING;
+        this.httpMethodAsScope = Boolean.TRUE.equals(config.getHttpMethodAsScope());
+        for (PathConfig pathConfig : config.getPaths()) {
+            entries.add(new Entry(PathPatternParser.defaultInstance.parse(toPathPattern(pathConfig.getPath())), pathConfig));
+        }
+        entries.sort(Comparator.comparing(Entry::pattern));
+    }
+
+    public EnforcementMode getEnforcementMode() {
+        return enforcementMode;
+    }
+
+    /**
+     * @return the permissions the request needs, or {@code null} when no path config matches
+     */
+    public Match match(PathContainer path, String method) {
+        for (Entry entry : entries) {
+            if (entry.pattern().matches(path)) {
+                return match(entry.pathConfig(), method);
+            }
+        }
+        return null;
+    }
+
+    private Match match(PathConfig pathConfig, String method) {
+        String resource = pathConfig.getName() != null ? pathConfig.getName() : pathConfig.getPath();
+        boolean enforced = pathConfig.getEnforcementMode() != EnforcementMode.DISABLED;
+        if (httpMethodAsScope) {
+            return new Match(List.of(new ProtectedResource(resource, method)), true, enforced);
+        }
+
+        List<String> scopes = pathConfig.getScopes();
+        ScopeEnforcementMode scopeMode = ScopeEnforcementMode.ALL;
+        for (MethodConfig methodConfig : pathConfig.getMethods()) {
+            if (ANY.equals(methodConfig.getMethod()) || method.equalsIgnoreCase(methodConfig.getMethod())) {
+                scopes = methodConfig.getScopes();
+                if (methodConfig.getScopesEnforcementMode() != null) {
+                    scopeMode = methodConfig.getScopesEnforcementMode();
+                }
+                break;
+            }
+        }
+        if (scopeMode == ScopeEnforcementMode.DISABLED) {
+            enforced = false;
+        }
+        // no scopes or a wildcard accept any permission on the resource
+        if (scopes == null || scopes.isEmpty() || scopes.contains(ANY)) {
+            return new Match(List.of(new ProtectedResource(resource, null)), true, enforced);
+        }
+        return new Match(scopes.stream().map(scope -> new ProtectedResource(resource, scope)).toList(),
+                scopeMode != ScopeEnforcementMode.ANY, enforced);
+    }
+
+    private static String toPathPattern(String keycloakPath) {
+        if (keycloakPath.endsWith("/*")) {
+            return keycloakPath.substring(0, keycloakPath.length() - 1) + "**";
+        }
+        return keycloakPath;
+    }
+
+    /**
+     * @param permissions the resource and scope pairs to decide on
+     * @param all         whether every permission is needed, or any of them suffices
+     * @param enforced    {@code false} when enforcement is disabled for the matching path
+     */
+    public record Match(List<ProtectedResource> permissions, boolean all, boolean enforced) {
+    }
+
+    private record Entry(PathPattern pattern, PathConfig pathConfig) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.calendar.frontendapp.security.authz;
+
+/**
+ * A Keycloak resource and the scope a request needs on it.
+ *
+ * @param resource the resource name, or its URI when the path config has no name
+ * @param scope    the required scope, {@code null} when any permission on the resource suffices
+ */
+public record ProtectedResource(String resource, String scope) {
+
+    /**
+     * @return the permission in the {@code resource#scope} form of the UMA grant
+     */
+    public String permission() {
+        return scope != null ? resource + "#" + scope : resource;
+    }
+}
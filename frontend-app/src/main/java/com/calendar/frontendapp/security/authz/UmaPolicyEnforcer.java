@@ -0,0 +1,142 @@
+package com.calendar.frontendapp.security.authz;
+
+import com.calendar.frontendapp.security.authz.PolicyDecisionCache.Key;
+import com.calendar.frontendapp.security.authz.PolicyEnforcerPaths.Match;
+import org.keycloak.representations.adapters.config.PolicyEnforcerConfig.EnforcementMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Enforces Keycloak Authorization Services permissions on the API. Decisions are taken from
+ * the {@code authorization} claim when the access token is an RPT; otherwise the issuer's
+ * token endpoint is asked for a UMA decision ({@code response_mode=decision}), which is
+ * cached in a {@link PolicyDecisionCache}. Failed evaluations deny without being cached.
+ */
+public class UmaPolicyEnforcer implements ReactiveAuthorizationManager<AuthorizationContext> {
+
+    private static final Logger logger = LoggerFactory.getLogger(UmaPolicyEnforcer.class);
+
+    private static final String UMA_TICKET_GRANT_TYPE = "urn:ietf:params:oauth:grant-type:uma-ticket";
+    private static final String TOKEN_PATH = "/protocol/openid-connect/token";
+
+    private static final ParameterizedTypeReference<Map<String, Object>> DECISION_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private final PolicyEnforcerPaths paths;
+    private final PolicyDecisionCache decisionCache;
+    private final WebClient webClient;
+    private final String audience;
+
+    /**
+     * @param audience the client id of the resource server the permissions are defined on
+     */
+    public UmaPolicyEnforcer(PolicyEnforcerPaths paths, PolicyDecisionCache decisionCache, WebClient webClient,
+                             String audience) {
+        this.paths = paths;
+        this.decisionCache = decisionCache;
+        this.webClient = webClient;
+        this.audience = audience;
+    }
+
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        ServerHttpRequest request = context.getExchange().getRequest();
+        Match match = paths.match(request.getPath().pathWithinApplication(), request.getMethod().name());
+        boolean enforced = paths.getEnforcementMode() != EnforcementMode.DISABLED
+                && (match != null ? match.enforced() : paths.getEnforcementMode() == EnforcementMode.ENFORCING);
+
+        return authentication
+                .filter(Authentication::isAuthenticated)
+                .flatMap(auth -> {
+                    if (!enforced) {
+                        return Mono.just(true);
+                    }
+                    if (match == null || !(auth instanceof AbstractOAuth2TokenAuthenticationToken<?> token)) {
+                        return Mono.just(false);
+                    }
+                    return decide(match, token);
+                })
+                .map(AuthorizationDecision::new)
+                .defaultIfEmpty(new AuthorizationDecision(false));
+    }
+
+    private Mono<Boolean> decide(Match match, AbstractOAuth2TokenAuthenticationToken<?> token) {
+        Map<String, Object> attributes = token.getTokenAttributes();
+        Flux<Boolean> decisions;
+        if (attributes.get("authorization") instanceof Map<?, ?> authorization) {
+            decisions = Flux.fromIterable(match.permissions())
+                    .map(permission -> isGrantedByRpt(authorization, permission));
+        } else {
+            String issuer = String.valueOf(attributes.get("iss"));
+            String subject = String.valueOf(attributes.get("sub"));
+            String clientId = String.valueOf(attributes.get("azp"));
+            String tokenScope = String.valueOf(attributes.get("scope"));
+            Instant expiresAt = token.getToken().getExpiresAt() != null ? token.getToken().getExpiresAt() : Instant.now();
+            String accessToken = token.getToken().getTokenValue();
+            decisions = Flux.fromIterable(match.permissions())
+                    .flatMap(permission -> decisionCache.decide(
+                                    new Key(issuer, subject, clientId, tokenScope, permission.resource(), permission.scope()), expiresAt,
+                                    () -> evaluate(issuer, accessToken, permission))
+                            .onErrorResume(ex -> {
+                                logger.warn("Policy evaluation of {} for {} failed: {}", permission.permission(), subject, ex.getMessage());
+                                return Mono.just(false);
+                            }));
+        }
+        return match.all() ? decisions.all(Boolean::booleanValue) : decisions.any(Boolean::booleanValue);
+    }
+
+    private static boolean isGrantedByRpt(Map<?, ?> authorization, ProtectedResource permission) {
+        if (!(authorization.get("permissions") instanceof Collection<?> permissions)) {
+            return false;
+        }
+        for (Object granted : permissions) {
+            if (granted instanceof Map<?, ?> grantedPermission
+                    && (permission.resource().equals(grantedPermission.get("rsname"))
+                    || permission.resource().equals(grantedPermission.get("rsid")))) {
+                if (permission.scope() == null) {
+                    return true;
+                }
+                if (grantedPermission.get("scopes") instanceof Collection<?> scopes && scopes.contains(permission.scope())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Mono<Boolean> evaluate(String issuer, String accessToken, ProtectedResource permission) {
+        return webClient.post()
+                .uri(issuer + TOKEN_PATH)
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .body(BodyInserters.fromFormData("grant_type", UMA_TICKET_GRANT_TYPE)
+                        .with("audience", audience)
+                        .with("permission", permission.permission())
+                        .with("response_mode", "decision"))
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.bodyToMono(DECISION_TYPE)
+                                .map(body -> Boolean.TRUE.equals(body.get("result")));
+                    }
+                    if (response.statusCode() == HttpStatus.FORBIDDEN) {
+                        return response.releaseBody().thenReturn(false);
+                    }
+                    return response.createError();
+                });
+    }
+}
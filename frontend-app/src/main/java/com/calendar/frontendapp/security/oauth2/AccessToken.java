@@ -0,0 +1,42 @@
+package com.calendar.frontendapp.security.oauth2;
+
+import org.springframework.web.server.WebSession;
+
+import java.time.Instant;
+
+/**
+ * The access token of a login as kept in the {@link WebSession}, with its absolute expiry
+ * so that checking it costs no arithmetic per request.
+ *
+ * @param value     the serialized token
+ * @param type      {@code Bearer} or {@code DPoP}
+ * @param expiresAt when the token expires, {@code null} when the IdP did not say
+ */
+public record AccessToken(String value, String type, Instant expiresAt) {
+
+    public static final String SESSION_ATTRIBUTE = "access_token";
+
+    /**
+     * @return the access token stored in the session, {@code null} before the login
+     */
+    public static AccessToken from(WebSession session) {
+        return session.getAttribute(SESSION_ATTRIBUTE);
+    }
+
+    public void storeIn(WebSession session) {
+        session.getAttributes().put(SESSION_ATTRIBUTE, this);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    public boolean isDPoPBound() {
+        return "DPoP".equalsIgnoreCase(type);
+    }
+
+    @Override
+    public String toString() {
+        return "AccessToken{type='" + type + "', expiresAt=" + expiresAt + '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.calendar.frontendapp.security.oauth2;
+
+import org.springframework.web.server.WebSession;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Decides whether the authentication level (acr) achieved in the current session satisfies
+ * the level a page requires, so that a step-up redirect to the IdP is only issued when needed.
+ */
+public class AcrPolicy {
+
+    public static final String ACR_ATTRIBUTE = "acr";
+    public static final String AUTH_TIME_ATTRIBUTE = "auth_time";
+
+    private final List<String> levels;
+    private final Duration maxAuthAge;
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * @param levels     acr values ordered from the weakest to the strongest
+     * @param maxAuthAge how long an authentication stays valid for step-up decisions
+     */
+    public AcrPolicy(List<String> levels, Duration maxAuthAge) {
+        this.levels = List.copyOf(levels);
+        this.maxAuthAge = maxAuthAge;
+    }
+
+    public boolean isSatisfied(WebSession session, String requiredAcr) {
+        String achievedAcr = session.getAttribute(ACR_ATTRIBUTE);
+        Instant authTime = session.getAttribute(AUTH_TIME_ATTRIBUTE);
+        AccessToken accessToken = AccessToken.from(session);
+        if (achievedAcr == null || authTime == null || accessToken == null) {
+            return false;
+        }
+        Instant now = clock.instant();
+        if (accessToken.isExpired(now) || authTime.plus(maxAuthAge).isBefore(now)) {
+            return false;
+        }
+        if (achievedAcr.equals(requiredAcr)) {
+            return true;
+        }
+        int achieved = levels.indexOf(achievedAcr);
+        int required = levels.indexOf(requiredAcr);
+        return achieved >= 0 && required >= 0 && achieved >= required;
+    }
+}
@@ -0,0 +1,79 @@
+package com.calendar.frontendapp.security.oauth2;
+
+import com.calendar.frontendapp.metrics.LoginMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps decoded session access tokens until they expire, so that the signature of a
+ * session's token is verified once instead of on every page request. When the cache holds
+ * {@code maxEntries} tokens, the least valuable ones are evicted.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final LoginMetrics loginMetrics;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Cache<String, Jwt> cache;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, int maxEntries, LoginMetrics loginMetrics) {
+        this.delegate = delegate;
+        this.loginMetrics = loginMetrics;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        long start = loginMetrics.start();
+        Jwt cached = cache.getIfPresent(token);
+        if (cached != null && cached.getExpiresAt().isAfter(clock.instant())) {
+            loginMetrics.jwtDecode(start, true);
+            return Mono.just(cached);
+        }
+        Mono<Jwt> decoded = delegate.decode(token).doOnNext(jwt -> {
+            if (jwt.getExpiresAt() != null) {
+                cache.put(token, jwt);
+            }
+        });
+        if (loginMetrics.isEnabled()) {
+            decoded = decoded.doOnTerminate(() -> loginMetrics.jwtDecode(start, false));
+        }
+        return decoded;
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    /**
+     * Expires every token at its {@code exp} claim.
+     */
+    private final class TokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,96 +1,96 @@
 package com.calendar.frontendapp.security.oauth2;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
-
-public class OAuth2AccessTokenResponse {
-
-    @JsonProperty("access_token")
-    private String accessToken;
-
-    @JsonProperty("token_type")
-    private String tokenType;
-
-    @JsonProperty("expires_in")
-    private Long expiresIn;
-
-    @JsonProperty("refresh_token")
-    private String refreshToken;
-
-    @JsonProperty("scope")
-    private String scope;
-
-    @JsonProperty("custom_parameters")
-    private java.util.Map<String, Object> customParameters;
-
-    public String getAccessToken() {
-        return accessToken;
-    }
-
-    public void setAccessToken(String accessToken) {
-        this.accessToken = accessToken;
-    }
-
-    public String getTokenType() {
-        return tokenType;
-    }
-
-    public void setTokenType(String tokenType) {
-        this.tokenType = tokenType;
-    }
-
-    public Long getExpiresIn() {
-        return expiresIn;
-    }
-
-    public void setExpiresIn(Long expiresIn) {
-        this.expiresIn = expiresIn;
-    }
-
-    public String getRefreshToken() {
-        return refreshToken;
-    }
-
-    public void setRefreshToken(String refreshToken) {
-        this.refreshToken = refreshToken;
-    }
-
-    public String getScope() {
-        return scope;
-    }
-
-    public void setScope(String scope) {
-        this.scope = scope;
-    }
-
-    public java.util.Map<String, Object> getCustomParameters() {
-        return customParameters;
-    }
-
-    public void setCustomParameters(java.util.Map<String, Object> customParameters) {
-        this.customParameters = customParameters;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+
+/**
+ * Successful response of the token endpoint (RFC 6749, section 5.1).
+ * <p>
+ * Read with a streaming parser instead of data binding: only the fields below are
+ * materialized, everything else the IdP sends, such as Keycloak's {@code session_state}
+ * or {@code not-before-policy}, is skipped without building values for it.
+ */
+public record OAuth2AccessTokenResponse(AccessToken accessToken, String refreshToken, String scope,
+                                        String idToken) {
+
+    private static final JsonFactory JSON = JsonFactory.builder().build();
+
+    /**
+     * @param json       the response body, not closed
+     * @param receivedAt when the response arrived, the base of the token's expiry
+     * @throws IOException when the body is not a JSON object or lacks the access token
+     */
+    public static OAuth2AccessTokenResponse parse(InputStream json, Instant receivedAt) throws IOException {
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Token response is not a JSON object");
+            }
+            String accessToken = null;
+            String tokenType = null;
+            Instant expiresAt = null;
+            String refreshToken = null;
+            String scope = null;
+            String idToken = null;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "access_token" -> accessToken = string(parser);
+                    case "token_type" -> tokenType = string(parser);
+                    case "expires_in" -> expiresAt = expiry(parser, value, receivedAt);
+                    case "refresh_token" -> refreshToken = string(parser);
+                    case "scope" -> scope = string(parser);
+                    case "id_token" -> idToken = string(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (accessToken == null) {
+                throw new JsonParseException(parser, "Token response does not contain an access_token");
+            }
+            return new OAuth2AccessTokenResponse(new AccessToken(accessToken, tokenType != null ? tokenType : "Bearer",
+                    expiresAt), refreshToken, scope, idToken);
+        }
     }
 
-    public boolean isDPopBound() {
-        return tokenType != null && tokenType.equalsIgnoreCase("DPoP");
+    private static String string(JsonParser parser) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
     }
 
-    public boolean isExpired(long issuedAtMillis) {
-        if (expiresIn == null) {
-            return false; // No expiration info available
+    /**
+     * Some IdPs send {@code expires_in} as a string.
+     */
+    private static Instant expiry(JsonParser parser, JsonToken value, Instant receivedAt) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return receivedAt.plusSeconds(parser.getLongValue());
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return receivedAt.plusSeconds(Long.parseLong(parser.getText().trim()));
+            } catch (NumberFormatException ex) {
+                throw new JsonParseException(parser, "Invalid expires_in: " + parser.getText(), ex);
+            }
         }
-        long expirationTimeMillis = issuedAtMillis + (expiresIn * 1000);
-        return System.currentTimeMillis() > expirationTimeMillis;
+        parser.skipChildren();
+        return null;
     }
 
     @Override
     public String toString() {
         return "OAuth2AccessTokenResponse{" +
-                "accessToken='" + (accessToken != null ? "***" : null) + '\'' +
-                ", tokenType='" + tokenType + '\'' +
-                ", expiresIn=" + expiresIn +
+                "accessToken=" + accessToken +
                 ", refreshToken='" + (refreshToken != null ? "***" : null) + '\'' +
                 ", scope='" + scope + '\'' +
-                ", customParameters=" + customParameters +
+                ", idToken='" + (idToken != null ? "***" : null) + '\'' +
                 '}';
     }
 }
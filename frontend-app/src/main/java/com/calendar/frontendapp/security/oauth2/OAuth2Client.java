@@ -1,16 +1,29 @@
 package com.calendar.frontendapp.security.oauth2;
 
+import com.calendar.frontendapp.metrics.LoginMetrics;
 import com.calendar.frontendapp.security.oauth2.dpop.DPoPService;
+import com.calendar.frontendapp.security.session.SessionRegistry;
+import com.calendar.frontendapp.tracing.LoginTracing;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import org.springframework.web.server.WebSession;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 
 import static com.calendar.frontendapp.security.oauth2.OAuthUtil.buildAuthorizationUrl;
+import static com.calendar.frontendapp.security.oauth2.OAuthUtil.buildPushedAuthorizationUrl;
 import static com.calendar.frontendapp.security.oauth2.OAuthUtil.generateCodeChallenge;
 import static com.calendar.frontendapp.security.oauth2.OAuthUtil.generateCodeVerifier;
 import static com.calendar.frontendapp.security.oauth2.OAuthUtil.generateState;
@@ -22,22 +35,44 @@ public class OAuth2Client {
     private final WebClient webClient;
     private final OAuth2Properties properties;
     private final DPoPService dPoPService;
+    private final ReactiveJwtDecoder idTokenDecoder;
+    private final SessionRegistry sessionRegistry;
+    private final LoginMetrics loginMetrics;
+    private final LoginTracing loginTracing;
 
-    public OAuth2Client(OAuth2Properties properties, WebClient webClient, DPoPService dPoPService) {
+    public OAuth2Client(OAuth2Properties properties, WebClient webClient, DPoPService dPoPService,
+                        ReactiveJwtDecoder idTokenDecoder, SessionRegistry sessionRegistry, LoginMetrics loginMetrics,
+                        LoginTracing loginTracing) {
         this.properties = properties;
         this.webClient = webClient;
         this.dPoPService = dPoPService;
+        this.idTokenDecoder = idTokenDecoder;
+        this.sessionRegistry = sessionRegistry;
+        this.loginMetrics = loginMetrics;
+        this.loginTracing = loginTracing;
     }
 
-    public String authorizationUrl(WebSession session, String acr, String targetPage) {
+    /**
+     * With PAR enabled, the authorization request is first pushed to the IdP and the
+     * returned URL only carries the {@code client_id} and the {@code request_uri}.
+     */
+    public Mono<String> authorizationUrl(WebSession session, String acr, String targetPage) {
+        long start = loginMetrics.start();
         String state = generateState(targetPage);
         String codeVerifier = generateCodeVerifier();
         String codeChallenge = generateCodeChallenge(codeVerifier);
 
         session.getAttributes().put("oauth_state", state);
         session.getAttributes().put("code_verifier", codeVerifier);
+        loginTracing.bind(session, state);
 
-        return buildAuthorizationUrl(
+        if (properties.isParEnabled()) {
+            loginMetrics.authorizeUrl(start);
+            return loginTracing.observe("login.par", () -> pushAuthorizationRequest(state, codeChallenge, acr))
+                    .map(requestUri -> buildPushedAuthorizationUrl(properties.getAuthorizationUri(),
+                            properties.getClientId(), requestUri));
+        }
+        String url = buildAuthorizationUrl(
                 properties.getAuthorizationUri(),
                 properties.getClientId(),
                 properties.getRedirectUri(),
@@ -46,9 +81,47 @@ public class OAuth2Client {
                 codeChallenge,
                 Optional.ofNullable(acr)
         );
+        loginMetrics.authorizeUrl(start);
+        return Mono.just(url);
+    }
+
+    /**
+     * @return the {@code request_uri} the IdP stored the request under
+     */
+    private Mono<String> pushAuthorizationRequest(String state, String codeChallenge, String acr) {
+        PushedAuthorizationRequest request =
+                new PushedAuthorizationRequest().from(properties, state, codeChallenge, Optional.ofNullable(acr));
+        if (properties.isDpopEnabled()) {
+            // binds the authorization code to the DPoP key (RFC 9449, section 10.1)
+            long signStart = loginMetrics.start();
+            String dpopProof = dPoPService.generateDPoP("POST", properties.getParUri(), null);
+            loginMetrics.dpopSign(signStart);
+            request.withHeader("DPoP", dpopProof);
+        }
+
+        Mono<PushedAuthorizationResponse> parRequest = webClient.post()
+                .uri(properties.getParUri())
+                .headers(httpHeaders -> httpHeaders.addAll(request.getHttpHeaders()))
+                .bodyValue(request.getBody())
+                .retrieve()
+                .bodyToMono(PushedAuthorizationResponse.class);
+        if (loginMetrics.isEnabled()) {
+            parRequest = timed(parRequest, loginMetrics::parRequest);
+        }
+        return parRequest.handle((response, sink) -> {
+            if (response.requestUri() == null) {
+                sink.error(new IllegalStateException("Pushed authorization response does not contain a request_uri"));
+            } else {
+                sink.next(response.requestUri());
+            }
+        });
     }
 
     public Mono<OAuth2AccessTokenResponse> tokenExchange(WebSession session, String authorizationCode) {
+        return loginTracing.observe("login.token.exchange", () -> exchange(session, authorizationCode));
+    }
+
+    private Mono<OAuth2AccessTokenResponse> exchange(WebSession session, String authorizationCode) {
         String codeVerifier = (String) session.getAttributes().get("code_verifier");
         if (codeVerifier == null) {
             return Mono.error(new IllegalStateException("code_verifier not found in session"));
@@ -57,22 +130,93 @@ public class OAuth2Client {
         OAuth2AccessTokenRequest request =
                 new OAuth2AccessTokenRequest().from(properties, authorizationCode, codeVerifier);
         if (properties.isDpopEnabled()) {
+            long signStart = loginMetrics.start();
             String dpopProof = dPoPService.generateDPoP("POST", properties.getTokenUri(), null);
+            loginMetrics.dpopSign(signStart);
             request.withHeader("DPoP", dpopProof);
         }
 
-        return webClient.post()
+        Mono<OAuth2AccessTokenResponse> tokenRequest = webClient.post()
                 .uri(properties.getTokenUri())
                 .headers(httpHeaders -> httpHeaders.addAll(request.getHttpHeaders()))
                 .bodyValue(request.getBody())
                 .retrieve()
-                .bodyToMono(OAuth2AccessTokenResponse.class)
+                .bodyToMono(DataBuffer.class)
+                .map(OAuth2Client::parse);
+        if (loginMetrics.isEnabled()) {
+            tokenRequest = timed(tokenRequest, loginMetrics::tokenRequest);
+        }
+
+        return tokenRequest
+                .flatMap(tokenResponse -> processIdToken(session, tokenResponse).thenReturn(tokenResponse))
                 .doOnNext(tokenResponse -> {
-                    session.getAttributes().put("access_token", tokenResponse.getAccessToken());
-                    session.getAttributes().put("token_type", tokenResponse.getTokenType());
-                    session.getAttributes().put("expires_in", tokenResponse.getExpiresIn());
+                    tokenResponse.accessToken().storeIn(session);
                     logger.info("Token exchange successful, stored tokens in session");
                 })
                 .onErrorStop();
     }
+
+    /**
+     * Reads the token response straight from the joined response buffer.
+     */
+    private static OAuth2AccessTokenResponse parse(DataBuffer body) {
+        try (InputStream json = body.asInputStream(true)) {
+            return OAuth2AccessTokenResponse.parse(json, Instant.now());
+        } catch (IOException ex) {
+            throw new DecodingException("Invalid token response: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Records the latency of a call to the IdP, tagged by whether the IdP answered,
+     * rejected the request or failed.
+     */
+    private <T> Mono<T> timed(Mono<T> idpRequest, BiConsumer<Long, LoginMetrics.Outcome> recorder) {
+        return Mono.defer(() -> {
+            long start = loginMetrics.start();
+            return idpRequest
+                    .doOnSuccess(response -> recorder.accept(start, LoginMetrics.Outcome.SUCCESS))
+                    .doOnError(ex -> recorder.accept(start, outcome(ex)));
+        });
+    }
+
+    private static LoginMetrics.Outcome outcome(Throwable ex) {
+        if (ex instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is4xxClientError()
+                    ? LoginMetrics.Outcome.CLIENT_ERROR
+                    : LoginMetrics.Outcome.SERVER_ERROR;
+        }
+        return LoginMetrics.Outcome.ERROR;
+    }
+
+    /**
+     * Validates the ID token, caches the achieved acr and auth_time in the session and
+     * indexes the session by its sid and sub claims, so that it can be revoked through
+     * back-channel logout.
+     */
+    private Mono<Void> processIdToken(WebSession session, OAuth2AccessTokenResponse tokenResponse) {
+        if (tokenResponse.idToken() == null) {
+            logger.warn("Token response does not contain an ID token, session cannot be revoked by back-channel logout");
+            session.getAttributes().remove(AcrPolicy.ACR_ATTRIBUTE);
+            session.getAttributes().remove(AcrPolicy.AUTH_TIME_ATTRIBUTE);
+            return Mono.empty();
+        }
+        return idTokenDecoder.decode(tokenResponse.idToken())
+                .doOnNext(idToken -> {
+                    storeAuthenticationLevel(session, idToken);
+                    sessionRegistry.register(session, idToken.getClaimAsString("sid"), idToken.getSubject());
+                })
+                .then();
+    }
+
+    private void storeAuthenticationLevel(WebSession session, Jwt idToken) {
+        String acr = idToken.getClaimAsString(AcrPolicy.ACR_ATTRIBUTE);
+        Instant authTime = idToken.getClaimAsInstant(AcrPolicy.AUTH_TIME_ATTRIBUTE);
+        if (acr == null) {
+            session.getAttributes().remove(AcrPolicy.ACR_ATTRIBUTE);
+        } else {
+            session.getAttributes().put(AcrPolicy.ACR_ATTRIBUTE, acr);
+        }
+        session.getAttributes().put(AcrPolicy.AUTH_TIME_ATTRIBUTE, authTime != null ? authTime : Instant.now());
+    }
 }
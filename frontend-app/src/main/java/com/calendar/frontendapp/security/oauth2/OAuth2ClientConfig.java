@@ -1,12 +1,20 @@
 package com.calendar.frontendapp.security.oauth2;
 
+import com.calendar.frontendapp.metrics.LoginMetrics;
 import com.calendar.frontendapp.security.oauth2.dpop.DPoPService;
+import com.calendar.frontendapp.security.oauth2.logout.BackChannelLogoutHandler;
+import com.calendar.frontendapp.security.session.SessionRegistry;
+import com.calendar.frontendapp.tracing.LoginTracing;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 public class OAuth2ClientConfig {
 
@@ -31,6 +39,24 @@ public class OAuth2ClientConfig {
     @Value("${spring.oauth2.client.dpop:false}")
     private boolean dpopEnabled;
 
+    @Value("${spring.oauth2.client.par:false}")
+    private boolean parEnabled;
+
+    @Value("${spring.oauth2.client.par-uri:}")
+    private String parUri;
+
+    @Value("${frontend.authorization.acr-levels:silver,gold}")
+    private List<String> acrLevels;
+
+    @Value("${frontend.authorization.max-auth-age:1h}")
+    private Duration maxAuthAge;
+
+    @Value("${frontend.logout.max-token-age:2m}")
+    private Duration logoutMaxTokenAge;
+
+    @Value("${frontend.logout.max-token-ids:100000}")
+    private int logoutMaxTokenIds;
+
     @Autowired
     DPoPService dPoPService;
 
@@ -40,6 +66,9 @@ public class OAuth2ClientConfig {
     }
 
     private OAuth2Properties oAuth2Properties() {
+        if (parEnabled && parUri.isBlank()) {
+            throw new IllegalStateException("spring.oauth2.client.par-uri is required when spring.oauth2.client.par is enabled");
+        }
         return OAuth2Properties.builder()
                 .clientId(clientId)
                 .redirectUri(redirectUri)
@@ -48,11 +77,28 @@ public class OAuth2ClientConfig {
                 .tokenUri(tokenUri)
                 .clientSecret(clientSecret)
                 .dpopEnabled(dpopEnabled)
+                .parUri(parUri)
+                .parEnabled(parEnabled)
                 .build();
     }
 
     @Bean
-    public OAuth2Client oAuth2Client(WebClient webClient) {
-        return new OAuth2Client(oAuth2Properties(), webClient, dPoPService);
+    public OAuth2Client oAuth2Client(WebClient webClient, ReactiveJwtDecoder reactiveJwtDecoder,
+                                     SessionRegistry sessionRegistry, LoginMetrics loginMetrics,
+                                     LoginTracing loginTracing) {
+        return new OAuth2Client(oAuth2Properties(), webClient, dPoPService, reactiveJwtDecoder, sessionRegistry,
+                loginMetrics, loginTracing);
+    }
+
+    @Bean
+    public AcrPolicy acrPolicy() {
+        return new AcrPolicy(acrLevels, maxAuthAge);
+    }
+
+    @Bean
+    public BackChannelLogoutHandler backChannelLogoutHandler(ReactiveJwtDecoder reactiveJwtDecoder,
+                                                             SessionRegistry sessionRegistry) {
+        return new BackChannelLogoutHandler(reactiveJwtDecoder, sessionRegistry, clientId, logoutMaxTokenAge,
+                logoutMaxTokenIds);
     }
 }
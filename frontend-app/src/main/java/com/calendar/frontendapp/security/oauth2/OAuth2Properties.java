@@ -9,6 +9,8 @@ public class OAuth2Properties {
     private String tokenUri;
     private String clientSecret;
     private boolean dpopEnabled;
+    private String parUri;
+    private boolean parEnabled;
 
     private OAuth2Properties(Builder builder) {
         this.clientId = builder.clientId;
@@ -18,6 +20,8 @@ public class OAuth2Properties {
         this.tokenUri = builder.tokenUri;
         this.clientSecret = builder.clientSecret;
         this.dpopEnabled = builder.dpopEnabled;
+        this.parUri = builder.parUri;
+        this.parEnabled = builder.parEnabled;
     }
 
     public static Builder builder() {
@@ -52,6 +56,17 @@ public class OAuth2Properties {
         return dpopEnabled;
     }
 
+    /**
+     * @return the pushed authorization request endpoint (RFC 9126)
+     */
+    public String getParUri() {
+        return parUri;
+    }
+
+    public boolean isParEnabled() {
+        return parEnabled;
+    }
+
     public static class Builder {
         private String clientId;
         private String redirectUri;
@@ -60,6 +75,8 @@ public class OAuth2Properties {
         private String tokenUri;
         private String clientSecret;
         private boolean dpopEnabled = false;
+        private String parUri;
+        private boolean parEnabled = false;
 
         public Builder clientId(String clientId) {
             this.clientId = clientId;
@@ -96,6 +113,16 @@ public class OAuth2Properties {
             return this;
         }
 
+        public Builder parUri(String parUri) {
+            this.parUri = parUri;
+            return this;
+        }
+
+        public Builder parEnabled(boolean parEnabled) {
+            this.parEnabled = parEnabled;
+            return this;
+        }
+
         public OAuth2Properties build() {
             return new OAuth2Properties(this);
         }
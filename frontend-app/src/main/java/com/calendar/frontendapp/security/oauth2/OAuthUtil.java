@@ -16,12 +16,14 @@ public class OAuthUtil {
     private static final int STATE_LENGTH = 32;
     private static final int CODE_VERIFIER_LENGTH = 64;
 
+    // thread-safe; seeded once instead of on every login
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public static String generateRandomString(int length) {
-        SecureRandom random = new SecureRandom();
         StringBuilder result = new StringBuilder(length);
 
         for (int i = 0; i < length; i++) {
-            result.append(CHARSET.charAt(random.nextInt(CHARSET.length())));
+            result.append(CHARSET.charAt(RANDOM.nextInt(CHARSET.length())));
         }
 
         return result.toString();
@@ -52,10 +54,6 @@ public class OAuthUtil {
                                                String codeChallenge,
                                                Optional<String> acr) {
 
-        String acrValue = "silver"; //TODO make configurable
-        if (acr.isPresent()) {
-            acrValue = acr.get();
-        }
         return UriComponentsBuilder.fromHttpUrl(authorizationEndpoint)
                 .queryParam("client_id", clientId)
                 .queryParam("response_type", "code")
@@ -64,8 +62,28 @@ public class OAuthUtil {
                 .queryParam("state", state)
                 .queryParam("code_challenge", codeChallenge)
                 .queryParam("code_challenge_method", "S256")
-                .queryParam("claims", URLEncoder.encode("{\"id_token\":{\"acr\":{\"essential\":true,\"values\":[\"" + acrValue +"\"]}}}"))
+                .queryParam("claims", URLEncoder.encode(claims(acr), StandardCharsets.UTF_8))
                 .build()
                 .toUriString();
     }
+
+    /**
+     * The front-channel URL after a pushed authorization request (RFC 9126): the IdP looks
+     * up all other parameters by the {@code request_uri} it returned.
+     */
+    public static String buildPushedAuthorizationUrl(String authorizationEndpoint, String clientId, String requestUri) {
+        return UriComponentsBuilder.fromHttpUrl(authorizationEndpoint)
+                .queryParam("client_id", URLEncoder.encode(clientId, StandardCharsets.UTF_8))
+                .queryParam("request_uri", URLEncoder.encode(requestUri, StandardCharsets.UTF_8))
+                .build()
+                .toUriString();
+    }
+
+    /**
+     * @return the {@code claims} parameter requesting the acr as an essential ID token claim
+     */
+    public static String claims(Optional<String> acr) {
+        String acrValue = acr.orElse("silver"); //TODO make configurable
+        return "{\"id_token\":{\"acr\":{\"essential\":true,\"values\":[\"" + acrValue + "\"]}}}";
+    }
 }
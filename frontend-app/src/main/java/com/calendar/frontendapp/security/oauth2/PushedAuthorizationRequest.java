@@ -0,0 +1,75 @@
+package com.calendar.frontendapp.security.oauth2;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.util.Optional;
+
+import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames.CLIENT_ID;
+import static org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames.CLIENT_SECRET;
+import static org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames.REDIRECT_URI;
+import static org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames.RESPONSE_TYPE;
+import static org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames.SCOPE;
+import static org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames.STATE;
+import static org.springframework.security.oauth2.core.endpoint.PkceParameterNames.CODE_CHALLENGE;
+import static org.springframework.security.oauth2.core.endpoint.PkceParameterNames.CODE_CHALLENGE_METHOD;
+
+/**
+ * Pushed authorization request (RFC 9126): the parameters of the authorization request,
+ * posted to the IdP over the back channel instead of being carried by the browser redirect.
+ */
+public class PushedAuthorizationRequest {
+
+    private LinkedMultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+    private LinkedMultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+
+    public PushedAuthorizationRequest() {
+        this.headers.add(CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+        this.headers.add(ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    public PushedAuthorizationRequest withHeader(String name, String value) {
+        this.headers.add(name, value);
+        return this;
+    }
+
+    public LinkedMultiValueMap<String, String> getBody() {
+        return formData;
+    }
+
+    public LinkedMultiValueMap<String, String> getHttpHeaders() {
+        return headers;
+    }
+
+    public PushedAuthorizationRequest from(OAuth2Properties properties, String state, String codeChallenge,
+                                           Optional<String> acr) {
+        formData.add(RESPONSE_TYPE, "code");
+        formData.add(CLIENT_ID, properties.getClientId());
+        if (properties.getClientSecret() != null) {
+            formData.add(CLIENT_SECRET, properties.getClientSecret());
+        }
+        formData.add(REDIRECT_URI, properties.getRedirectUri());
+        formData.add(SCOPE, properties.getScope());
+        formData.add(STATE, state);
+        formData.add(CODE_CHALLENGE, codeChallenge);
+        formData.add(CODE_CHALLENGE_METHOD, "S256");
+        formData.add("claims", OAuthUtil.claims(acr));
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PushedAuthorizationRequest{");
+        formData.forEach((key, values) -> {
+            if (!key.equals(CLIENT_SECRET)) {
+                sb.append(key).append("=").append(values).append(", ");
+            }
+        });
+        if (sb.charAt(sb.length() - 1) == ' ') {
+            sb.setLength(sb.length() - 2);
+        }
+        return sb.append("}").toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.calendar.frontendapp.security.oauth2;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response of the pushed authorization request endpoint (RFC 9126, section 2.2).
+ *
+ * @param requestUri references the pushed parameters in the authorization request
+ * @param expiresIn  seconds the {@code requestUri} can be used
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PushedAuthorizationResponse(@JsonProperty("request_uri") String requestUri,
+                                          @JsonProperty("expires_in") long expiresIn) {
+}
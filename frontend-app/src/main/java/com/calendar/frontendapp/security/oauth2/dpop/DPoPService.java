@@ -1,9 +1,10 @@
 package com.calendar.frontendapp.security.oauth2.dpop;
 
 import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
 
 import org.jboss.logging.Logger;
-import org.keycloak.common.util.KeyUtils;
 import org.keycloak.util.DPoPGenerator;
 
 public class DPoPService {
@@ -13,34 +14,46 @@ public class DPoPService {
     private static final String SSH_PRIVATE_KEY_PATH = "ssh/id_rsa";
     private static final String SSH_PUBLIC_KEY_PATH = "ssh/id_rsa.pub";
 
-    private KeyPair keyPair;
+    private final KeyPair keyPair;
 
+    /**
+     * Loads or generates the key pair right away, so neither the file I/O nor the key
+     * generation ends up on an event-loop thread during the first token exchange.
+     */
     public DPoPService() {
+        KeyPair loaded = null;
         try {
-            loadSSHKeyPair();
+            loaded = loadSSHKeyPair();
         } catch (Exception ex) {
             log.warn("Failed to load SSH keypair, will generate new one: " + ex.getMessage());
         }
+        this.keyPair = loaded != null ? loaded : generateKeys();
     }
 
     public String generateDPoP(String httpMethod, String endpointUrl, String accessToken) {
-        if (keyPair == null) {
-            generateKeys();
-        }
         return DPoPGenerator.generateRsaSignedDPoPProof(keyPair, httpMethod, endpointUrl, accessToken);
     }
-    private void loadSSHKeyPair() throws Exception {
+    private KeyPair loadSSHKeyPair() throws Exception {
         try {
-            keyPair = KeyPairLoader.loadKeyPair(SSH_PRIVATE_KEY_PATH, SSH_PUBLIC_KEY_PATH);
+            KeyPair loaded = KeyPairLoader.loadKeyPair(SSH_PRIVATE_KEY_PATH, SSH_PUBLIC_KEY_PATH);
             log.info("DPoP RSA KeyPair loaded from SSH files successfully.");
+            return loaded;
         } catch (Exception ex) {
             log.error("Failed to load SSH KeyPair: " + ex.getMessage(), ex);
             throw ex;
         }
     }
 
-    private void generateKeys() {
-        keyPair = KeyUtils.generateRsaKeyPair(2048);
-        log.info("New DPoP RSA keyPair generated.");
+    private static KeyPair generateKeys() {
+        // KeyUtils needs a Keycloak crypto provider able to generate keys, the JDK is enough here
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair generated = generator.generateKeyPair();
+            log.info("New DPoP RSA keyPair generated.");
+            return generated;
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("RSA key generation not available", ex);
+        }
     }
 }
\ No newline at end of file
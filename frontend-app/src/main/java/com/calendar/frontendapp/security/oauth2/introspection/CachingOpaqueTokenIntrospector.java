@@ -0,0 +1,116 @@
+package com.calendar.frontendapp.security.oauth2.introspection;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenException;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RFC 7662 introspector decorator that caches results per token.
+ * Active tokens are cached until their {@code exp} claim, capped at {@code maxTtl};
+ * inactive tokens are cached for {@code negativeTtl}. Concurrent lookups of the same
+ * token share a single call to the introspection endpoint. When the cache holds
+ * {@code maxEntries} results, the least valuable ones are evicted.
+ */
+public class CachingOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector {
+
+    private final ReactiveOpaqueTokenIntrospector delegate;
+    private final Duration maxTtl;
+    private final Duration negativeTtl;
+    private final Clock clock = Clock.systemUTC();
+
+    private final Cache<String, CacheEntry> cache;
+    private final Map<String, Mono<OAuth2AuthenticatedPrincipal>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector delegate, Duration maxTtl,
+                                          Duration negativeTtl, int maxEntries) {
+        this.delegate = delegate;
+        this.maxTtl = maxTtl;
+        this.negativeTtl = negativeTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new EntryExpiry())
+                .build();
+    }
+
+    @Override
+    public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+        CacheEntry entry = cache.getIfPresent(token);
+        if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+            hits.increment();
+            return entry.principal() != null
+                    ? Mono.just(entry.principal())
+                    : Mono.error(new BadOpaqueTokenException("Provided token isn't active"));
+        }
+        misses.increment();
+        return inFlight.computeIfAbsent(token, this::load);
+    }
+
+    private Mono<OAuth2AuthenticatedPrincipal> load(String token) {
+        return delegate.introspect(token)
+                .doOnNext(principal -> cache.put(token, new CacheEntry(principal, positiveExpiry(principal))))
+                .doOnError(BadOpaqueTokenException.class,
+                        ex -> cache.put(token, new CacheEntry(null, clock.instant().plus(negativeTtl))))
+                .doFinally(signal -> inFlight.remove(token))
+                .cache();
+    }
+
+    private Instant positiveExpiry(OAuth2AuthenticatedPrincipal principal) {
+        Instant cap = clock.instant().plus(maxTtl);
+        Object exp = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+        if (exp instanceof Instant expiresAt && expiresAt.isBefore(cap)) {
+            return expiresAt;
+        }
+        return cap;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    private record CacheEntry(OAuth2AuthenticatedPrincipal principal, Instant expiresAt) {
+    }
+
+    /**
+     * Expires every entry at its own {@code expiresAt}.
+     */
+    private final class EntryExpiry implements Expiry<String, CacheEntry> {
+
+        @Override
+        public long expireAfterCreate(String token, CacheEntry entry, long currentTime) {
+            return Math.max(0, Duration.between(clock.instant(), entry.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, CacheEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, CacheEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.calendar.frontendapp.security.oauth2.introspection;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exposes introspection results through the {@link ReactiveJwtDecoder} contract, so that
+ * session-based authentication reads claims the same way for JWT and opaque access tokens.
+ */
+public class IntrospectionReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveOpaqueTokenIntrospector introspector;
+
+    public IntrospectionReactiveJwtDecoder(ReactiveOpaqueTokenIntrospector introspector) {
+        this.introspector = introspector;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        return introspector.introspect(token)
+                .map(principal -> Jwt.withTokenValue(token)
+                        .header("typ", "opaque")
+                        .claims(claims -> claims.putAll(principal.getAttributes()))
+                        .build());
+    }
+}
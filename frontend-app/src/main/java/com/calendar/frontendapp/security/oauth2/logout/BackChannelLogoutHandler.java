@@ -0,0 +1,111 @@
+package com.calendar.frontendapp.security.oauth2.logout;
+
+import com.calendar.frontendapp.security.session.SessionRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates OIDC back-channel logout tokens and revokes the local sessions they refer to.
+ * See <a href="https://openid.net/specs/openid-connect-backchannel-1_0.html">OpenID Connect Back-Channel Logout</a>.
+ * Tokens older than the maximum token age are rejected, and the {@code jti} of every accepted
+ * token is remembered for that long, so a captured logout token cannot be replayed.
+ */
+public class BackChannelLogoutHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackChannelLogoutHandler.class);
+
+    private static final String BACKCHANNEL_LOGOUT_EVENT = "http://schemas.openid.net/event/backchannel-logout";
+
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final ReactiveJwtDecoder reactiveJwtDecoder;
+    private final SessionRegistry sessionRegistry;
+    private final String clientId;
+    private final Duration maxTokenAge;
+    private final Cache<String, Boolean> seenTokenIds;
+
+    public BackChannelLogoutHandler(ReactiveJwtDecoder reactiveJwtDecoder, SessionRegistry sessionRegistry, String clientId,
+                                    Duration maxTokenAge, int maxTokenIds) {
+        this.reactiveJwtDecoder = reactiveJwtDecoder;
+        this.sessionRegistry = sessionRegistry;
+        this.clientId = clientId;
+        this.maxTokenAge = maxTokenAge;
+        // a jti only has to be remembered as long as its token would pass the iat check
+        this.seenTokenIds = Caffeine.newBuilder()
+                .expireAfterWrite(maxTokenAge.plus(CLOCK_SKEW.multipliedBy(2)))
+                .maximumSize(maxTokenIds)
+                .build();
+    }
+
+    /**
+     * Validates the logout token and invalidates the matching sessions.
+     *
+     * @return the number of revoked sessions
+     */
+    public Mono<Long> logout(String logoutToken) {
+        if (logoutToken == null || logoutToken.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Missing logout_token"));
+        }
+        return reactiveJwtDecoder.decode(logoutToken)
+                .flatMap(jwt -> {
+                    validate(jwt);
+                    markUsed(jwt);
+                    String sid = jwt.getClaimAsString("sid");
+                    Mono<Long> revoked = sid != null
+                            ? sessionRegistry.revokeBySid(sid)
+                            : sessionRegistry.revokeBySubject(jwt.getSubject());
+                    return revoked.doOnNext(count ->
+                            logger.info("Back-channel logout revoked {} session(s) for sid={}, sub={}", count, sid, jwt.getSubject()));
+                });
+    }
+
+    private void validate(Jwt jwt) {
+        List<String> audience = jwt.getAudience();
+        if (audience == null || !audience.contains(clientId)) {
+            throw new IllegalArgumentException("Logout token is not issued for this client");
+        }
+        Map<String, Object> events = jwt.getClaimAsMap("events");
+        if (events == null || !events.containsKey(BACKCHANNEL_LOGOUT_EVENT)) {
+            throw new IllegalArgumentException("Logout token does not contain the back-channel logout event");
+        }
+        if (jwt.hasClaim("nonce")) {
+            throw new IllegalArgumentException("Logout token must not contain a nonce");
+        }
+        if (jwt.getClaimAsString("sid") == null && jwt.getSubject() == null) {
+            throw new IllegalArgumentException("Logout token must contain a sid or sub claim");
+        }
+        Instant issuedAt = jwt.getIssuedAt();
+        if (issuedAt == null) {
+            throw new IllegalArgumentException("Logout token must contain an iat claim");
+        }
+        Instant now = Instant.now();
+        if (issuedAt.isBefore(now.minus(maxTokenAge).minus(CLOCK_SKEW)) || issuedAt.isAfter(now.plus(CLOCK_SKEW))) {
+            throw new IllegalArgumentException("Logout token is too old or issued in the future");
+        }
+        if (jwt.getId() == null) {
+            throw new IllegalArgumentException("Logout token must contain a jti claim");
+        }
+    }
+
+    /**
+     * Remembers the token's {@code jti}, scoped to its issuer.
+     *
+     * @throws IllegalArgumentException if the token was already accepted before
+     */
+    private void markUsed(Jwt jwt) {
+        String key = jwt.getClaimAsString("iss") + ' ' + jwt.getId();
+        if (seenTokenIds.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            throw new IllegalArgumentException("Logout token was already used");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.calendar.frontendapp.security.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throttles the public login endpoints per client, ahead of the Spring Security filter chain.
+ * Requests are keyed by client IP. With {@code keyBySession} they are keyed by the id of the
+ * server-side session instead, which is looked up for this; requests whose session cookie
+ * does not name a known session fall back to the IP, so made-up cookie values do not get a
+ * bucket of their own. Behind a reverse proxy the IP is the proxy's unless
+ * {@code server.forward-headers-strategy} takes it from the forwarded headers.
+ */
+public class RateLimitFilter implements WebFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Set<String> paths;
+    private final boolean keyBySession;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter, Set<String> paths, boolean keyBySession) {
+        this.rateLimiter = rateLimiter;
+        this.paths = Set.copyOf(paths);
+        this.keyBySession = keyBySession;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!paths.contains(exchange.getRequest().getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+
+        if (keyBySession) {
+            return exchange.getSession()
+                    .flatMap(session -> filter(exchange, chain,
+                            session.isStarted() ? "session:" + session.getId() : clientAddress(exchange.getRequest())));
+        }
+        return filter(exchange, chain, clientAddress(exchange.getRequest()));
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain, String key) {
+        long waitNanos = rateLimiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            allowed.increment();
+            return chain.filter(exchange);
+        }
+
+        rejected.increment();
+        logger.debug("Rate limit exceeded for client '{}' on {}", key, exchange.getRequest().getPath());
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+        return exchange.getResponse().setComplete();
+    }
+
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Runs ahead of the Spring Security filter chain and the session authentication filter.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
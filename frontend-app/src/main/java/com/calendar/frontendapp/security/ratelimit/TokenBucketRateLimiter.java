@@ -0,0 +1,82 @@
+package com.calendar.frontendapp.security.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token bucket implemented as a generic cell rate algorithm: each bucket is a single
+ * "theoretical arrival time" updated with CAS, so acquiring a permit never takes a lock.
+ * A bucket whose arrival time is in the past is full and equivalent to a fresh one, which
+ * allows idle keys to be dropped lazily once the number of keys exceeds {@code maxKeys}.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final String OVERFLOW_KEY = "__overflow__";
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxKeys;
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst            number of permits a key can use at once
+     * @param maxKeys          maximum number of tracked keys, excess keys share one bucket
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Tries to take one permit for the key.
+     *
+     * @return 0 if the permit was granted, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = bucket(key, now);
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweep(now);
+            if (buckets.size() >= maxKeys) {
+                return buckets.computeIfAbsent(OVERFLOW_KEY, k -> new AtomicLong(now));
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+    }
+}
@@ -0,0 +1,161 @@
+package com.calendar.frontendapp.security.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.server.WebSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the local sessions established through the authorization code flow and
+ * indexes them by the IdP session id ({@code sid}) and subject ({@code sub}) of the ID token.
+ * Revoking by {@code sid} or {@code sub} only touches the sessions of that key, no matter
+ * how many sessions are active.
+ */
+public class SessionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsBySid = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsBySubject = new ConcurrentHashMap<>();
+
+    private final Duration sweepInterval;
+    private Disposable sweeper;
+
+    public SessionRegistry(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    /**
+     * Starts the periodic removal of expired sessions from the index.
+     */
+    public void start() {
+        sweeper = Flux.interval(sweepInterval, sweepInterval)
+                .subscribe(tick -> {
+                    int purged = purgeExpired();
+                    if (purged > 0) {
+                        logger.debug("Purged {} expired sessions from the session registry", purged);
+                    }
+                });
+    }
+
+    public void close() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    /**
+     * Indexes the session under the given IdP session id and subject. Registering the same
+     * session again (e.g. after a step-up login) replaces its previous keys.
+     */
+    public void register(WebSession session, String sid, String subject) {
+        Entry entry = new Entry(session, sid, subject);
+        Entry previous = sessions.put(session.getId(), entry);
+        if (previous != null) {
+            deindex(previous, session.getId());
+        }
+        if (sid != null) {
+            index(sessionsBySid, sid, session.getId());
+        }
+        if (subject != null) {
+            index(sessionsBySubject, subject, session.getId());
+        }
+        logger.debug("Registered session {} for sid={}, sub={}", session.getId(), sid, subject);
+    }
+
+    public void unregister(String sessionId) {
+        Entry entry = sessions.remove(sessionId);
+        if (entry != null) {
+            deindex(entry, sessionId);
+        }
+    }
+
+    /**
+     * Invalidates every local session bound to the given IdP session id.
+     *
+     * @return the number of sessions that were invalidated
+     */
+    public Mono<Long> revokeBySid(String sid) {
+        return revoke(sessionsBySid.remove(sid));
+    }
+
+    /**
+     * Invalidates every local session of the given subject.
+     *
+     * @return the number of sessions that were invalidated
+     */
+    public Mono<Long> revokeBySubject(String subject) {
+        return revoke(sessionsBySubject.remove(subject));
+    }
+
+    /**
+     * Removes index entries of sessions that expired or were invalidated elsewhere.
+     *
+     * @return the number of purged sessions
+     */
+    public int purgeExpired() {
+        int purged = 0;
+        for (Map.Entry<String, Entry> mapEntry : sessions.entrySet()) {
+            if (mapEntry.getValue().session().isExpired() && sessions.remove(mapEntry.getKey(), mapEntry.getValue())) {
+                deindex(mapEntry.getValue(), mapEntry.getKey());
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private Mono<Long> revoke(Set<String> sessionIds) {
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return Flux.fromIterable(sessionIds)
+                .flatMap(sessionId -> {
+                    Entry entry = sessions.remove(sessionId);
+                    if (entry == null) {
+                        return Mono.empty();
+                    }
+                    deindex(entry, sessionId);
+                    return entry.session().invalidate().thenReturn(sessionId);
+                })
+                .count();
+    }
+
+    private void deindex(Entry entry, String sessionId) {
+        if (entry.sid() != null) {
+            deindex(sessionsBySid, entry.sid(), sessionId);
+        }
+        if (entry.subject() != null) {
+            deindex(sessionsBySubject, entry.subject(), sessionId);
+        }
+    }
+
+    private static void index(Map<String, Set<String>> index, String key, String sessionId) {
+        index.compute(key, (k, ids) -> {
+            Set<String> result = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            result.add(sessionId);
+            return result;
+        });
+    }
+
+    private static void deindex(Map<String, Set<String>> index, String key, String sessionId) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private record Entry(WebSession session, String sid, String subject) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.calendar.frontendapp.security.tenant;
+
+import com.calendar.frontendapp.security.oauth2.OAuth2Client;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+/**
+ * A Keycloak realm served by this deployment, with the decoder and OAuth client bound to
+ * its issuer.
+ */
+public record Tenant(String id, String issuer, ReactiveJwtDecoder jwtDecoder, OAuth2Client client) {
+}
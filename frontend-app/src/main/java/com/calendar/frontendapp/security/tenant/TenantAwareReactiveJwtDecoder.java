@@ -0,0 +1,27 @@
+package com.calendar.frontendapp.security.tenant;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes tokens with the decoder of the tenant in the Reactor context, or with the default
+ * decoder outside of a tenant.
+ */
+public class TenantAwareReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final TenantRegistry tenantRegistry;
+    private final ReactiveJwtDecoder defaultDecoder;
+
+    public TenantAwareReactiveJwtDecoder(TenantRegistry tenantRegistry, ReactiveJwtDecoder defaultDecoder) {
+        this.tenantRegistry = tenantRegistry;
+        this.defaultDecoder = defaultDecoder;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        return Mono.deferContextual(context -> context.<String>getOrEmpty(TenantWebFilter.TENANT_ATTRIBUTE)
+                .map(tenantId -> tenantRegistry.get(tenantId).jwtDecoder().decode(token))
+                .orElseGet(() -> defaultDecoder.decode(token)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.calendar.frontendapp.security.tenant;
+
+import com.calendar.frontendapp.metrics.LoginMetrics;
+import com.calendar.frontendapp.security.oauth2.OAuth2Client;
+import com.calendar.frontendapp.security.oauth2.OAuth2Properties;
+import com.calendar.frontendapp.security.oauth2.dpop.DPoPService;
+import com.calendar.frontendapp.security.session.SessionRegistry;
+import com.calendar.frontendapp.tracing.LoginTracing;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Serves many Keycloak realms from one deployment. The issuer and redirect URI of a tenant
+ * are derived from templates with a {@code {tenant}} placeholder. The Keycloak endpoint
+ * paths are fixed, so creating a tenant needs no discovery request; its JWKS is fetched
+ * on the first token it decodes, through the WebClient shared by all tenants.
+ */
+@Configuration
+@ConditionalOnProperty(name = "frontend.tenancy.enabled", havingValue = "true")
+public class TenantConfig {
+
+    private static final String TENANT_PLACEHOLDER = "{tenant}";
+
+    private static final String JWK_SET_PATH = "/protocol/openid-connect/certs";
+    private static final String AUTHORIZATION_PATH = "/protocol/openid-connect/auth";
+    private static final String TOKEN_PATH = "/protocol/openid-connect/token";
+    private static final String PAR_PATH = "/protocol/openid-connect/ext/par/request";
+
+    @Value("${frontend.tenancy.resolution:host}")
+    private String resolution;
+
+    @Value("${frontend.tenancy.base-domain:localhost}")
+    private String baseDomain;
+
+    @Value("${frontend.tenancy.tenant-pattern:[a-z0-9][a-z0-9-]{0,62}}")
+    private String tenantPattern;
+
+    @Value("${frontend.tenancy.issuer-template}")
+    private String issuerTemplate;
+
+    @Value("${frontend.tenancy.redirect-uri-template}")
+    private String redirectUriTemplate;
+
+    @Value("${frontend.tenancy.max-tenants:200}")
+    private int maxTenants;
+
+    @Value("${spring.oauth2.client.id}")
+    private String clientId;
+
+    @Value("${spring.oauth2.client.secret}")
+    private String clientSecret;
+
+    @Value("${spring.oauth2.client.scope}")
+    private String scope;
+
+    @Value("${spring.oauth2.client.dpop:false}")
+    private boolean dpopEnabled;
+
+    @Value("${spring.oauth2.client.par:false}")
+    private boolean parEnabled;
+
+    @Bean
+    public TenantResolver tenantResolver() {
+        return new TenantResolver(TenantResolver.Mode.valueOf(resolution.toUpperCase(Locale.ROOT)),
+                baseDomain, Pattern.compile(tenantPattern));
+    }
+
+    @Bean
+    public TenantWebFilter tenantWebFilter(TenantResolver tenantResolver) {
+        return new TenantWebFilter(tenantResolver);
+    }
+
+    @Bean
+    public TenantRegistry tenantRegistry(WebClient webClient, DPoPService dPoPService, SessionRegistry sessionRegistry,
+                                         LoginMetrics loginMetrics, LoginTracing loginTracing) {
+        return new TenantRegistry(tenantId -> {
+            String issuer = issuerTemplate.replace(TENANT_PLACEHOLDER, tenantId);
+            NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withJwkSetUri(issuer + JWK_SET_PATH)
+                    .webClient(webClient)
+                    .build();
+            jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+
+            OAuth2Properties properties = OAuth2Properties.builder()
+                    .clientId(clientId)
+                    .clientSecret(clientSecret)
+                    .scope(scope)
+                    .redirectUri(redirectUriTemplate.replace(TENANT_PLACEHOLDER, tenantId))
+                    .authorizationUri(issuer + AUTHORIZATION_PATH)
+                    .tokenUri(issuer + TOKEN_PATH)
+                    .dpopEnabled(dpopEnabled)
+                    .parUri(issuer + PAR_PATH)
+                    .parEnabled(parEnabled)
+                    .build();
+            OAuth2Client client = new OAuth2Client(properties, webClient, dPoPService, jwtDecoder, sessionRegistry,
+                    loginMetrics, loginTracing);
+            return new Tenant(tenantId, issuer, jwtDecoder, client);
+        }, maxTenants);
+    }
+
+    /**
+     * Replaces the single-issuer decoder for resource server, session and logout token
+     * validation. The single-issuer decoder stays the default outside of a tenant.
+     */
+    @Bean
+    @Primary
+    public ReactiveJwtDecoder tenantAwareReactiveJwtDecoder(TenantRegistry tenantRegistry,
+                                                            @Qualifier("reactiveJwtDecoder") ReactiveJwtDecoder reactiveJwtDecoder) {
+        return new TenantAwareReactiveJwtDecoder(tenantRegistry, reactiveJwtDecoder);
+    }
+}
@@ -0,0 +1,77 @@
+package com.calendar.frontendapp.security.tenant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Creates tenants lazily on their first request and keeps at most {@code maxTenants} of
+ * them, evicting the least recently used. An evicted tenant is simply created again on its
+ * next request, so memory does not grow with the number of inactive tenants.
+ */
+public class TenantRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+
+    private final Function<String, Tenant> factory;
+    private final int maxTenants;
+
+    // guarded by itself, an access-ordered LinkedHashMap is modified by get()
+    private final Map<String, Tenant> tenants;
+
+    private long createdCount;
+    private long evictedCount;
+
+    /**
+     * @param factory creates the tenant for an id; must be cheap as it runs under the registry lock
+     */
+    public TenantRegistry(Function<String, Tenant> factory, int maxTenants) {
+        this.factory = factory;
+        this.maxTenants = maxTenants;
+        this.tenants = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tenant> eldest) {
+                if (size() > TenantRegistry.this.maxTenants) {
+                    evictedCount++;
+                    logger.debug("Evicting inactive tenant {}", eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Tenant get(String tenantId) {
+        synchronized (tenants) {
+            Tenant tenant = tenants.get(tenantId);
+            if (tenant == null) {
+                tenant = factory.apply(tenantId);
+                tenants.put(tenantId, tenant);
+                createdCount++;
+                logger.debug("Created tenant {} for issuer {}", tenantId, tenant.issuer());
+            }
+            return tenant;
+        }
+    }
+
+    public int size() {
+        synchronized (tenants) {
+            return tenants.size();
+        }
+    }
+
+    public long getCreatedCount() {
+        synchronized (tenants) {
+            return createdCount;
+        }
+    }
+
+    public long getEvictedCount() {
+        synchronized (tenants) {
+            return evictedCount;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.calendar.frontendapp.security.tenant;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant of a request either from the host ({@code <tenant>.<base-domain>})
+ * or from a path prefix ({@code /t/<tenant>/...}).
+ */
+public class TenantResolver {
+
+    public static final String PATH_PREFIX = "/t/";
+
+    public enum Mode {
+        HOST, PATH
+    }
+
+    private final Mode mode;
+    private final String domainSuffix;
+    private final Pattern tenantPattern;
+
+    /**
+     * @param baseDomain    the domain the tenant subdomains live under, used in host mode
+     * @param tenantPattern the tenant ids that are accepted, other values are rejected
+     */
+    public TenantResolver(Mode mode, String baseDomain, Pattern tenantPattern) {
+        this.mode = mode;
+        this.domainSuffix = "." + baseDomain.toLowerCase(Locale.ROOT);
+        this.tenantPattern = tenantPattern;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the tenant id, {@code null} when the request does not address a tenant
+     */
+    public String resolve(ServerHttpRequest request) {
+        return mode == Mode.HOST ? fromHost(request) : fromPath(request);
+    }
+
+    /**
+     * @return whether the tenant id may be used to build an issuer URL
+     */
+    public boolean isValid(String tenantId) {
+        return tenantPattern.matcher(tenantId).matches();
+    }
+
+    private String fromHost(ServerHttpRequest request) {
+        InetSocketAddress host = request.getHeaders().getHost();
+        if (host == null) {
+            return null;
+        }
+        String hostName = host.getHostString().toLowerCase(Locale.ROOT);
+        if (!hostName.endsWith(domainSuffix) || hostName.length() == domainSuffix.length()) {
+            return null;
+        }
+        return hostName.substring(0, hostName.length() - domainSuffix.length());
+    }
+
+    private String fromPath(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        if (!path.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+        int end = path.indexOf('/', PATH_PREFIX.length());
+        return end < 0 ? path.substring(PATH_PREFIX.length()) : path.substring(PATH_PREFIX.length(), end);
+    }
+}
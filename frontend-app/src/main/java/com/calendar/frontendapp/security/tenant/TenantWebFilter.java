@@ -0,0 +1,54 @@
+package com.calendar.frontendapp.security.tenant;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves the tenant of each request and exposes its id as exchange attribute and in the
+ * Reactor context, where {@link TenantAwareReactiveJwtDecoder} picks it up. In path mode
+ * the {@code /t/<tenant>} prefix becomes the context path, so controllers and redirects
+ * work unchanged. Requests without a tenant are served by the default issuer.
+ */
+public class TenantWebFilter implements WebFilter, Ordered {
+
+    public static final String TENANT_ATTRIBUTE = TenantWebFilter.class.getName() + ".tenant";
+
+    private final TenantResolver tenantResolver;
+
+    public TenantWebFilter(TenantResolver tenantResolver) {
+        this.tenantResolver = tenantResolver;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String tenantId = tenantResolver.resolve(exchange.getRequest());
+        if (tenantId == null) {
+            return chain.filter(exchange);
+        }
+        if (!tenantResolver.isValid(tenantId)) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+
+        ServerWebExchange tenantExchange = exchange;
+        if (tenantResolver.getMode() == TenantResolver.Mode.PATH) {
+            String contextPath = TenantResolver.PATH_PREFIX + tenantId;
+            tenantExchange = exchange.mutate()
+                    .request(exchange.getRequest().mutate().contextPath(contextPath).build())
+                    .build();
+        }
+        tenantExchange.getAttributes().put(TENANT_ATTRIBUTE, tenantId);
+        return chain.filter(tenantExchange)
+                .contextWrite(context -> context.put(TENANT_ATTRIBUTE, tenantId));
+    }
+
+    @Override
+    public int getOrder() {
+        // before the rate limiter, which matches paths within the application
+        return Ordered.HIGHEST_PRECEDENCE + 5;
+    }
+}
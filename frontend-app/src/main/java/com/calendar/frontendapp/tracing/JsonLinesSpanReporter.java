@@ -0,0 +1,118 @@
+package com.calendar.frontendapp.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line, so traces can be
+ * inspected without a tracing backend. Spans are queued when they finish and written
+ * periodically off the request threads; when the queue is full, spans are dropped.
+ */
+public class JsonLinesSpanReporter implements SpanReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonLinesSpanReporter.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Duration flushInterval;
+    private final BlockingQueue<FinishedSpan> queue;
+    private final Scheduler scheduler;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private Disposable scheduledFlushes;
+
+    /**
+     * @param scheduler where the spans are written, must allow blocking
+     */
+    public JsonLinesSpanReporter(Path file, ObjectMapper objectMapper, int queueSize, Duration flushInterval,
+                                 Scheduler scheduler) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.flushInterval = flushInterval;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.scheduler = scheduler;
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        scheduledFlushes = Flux.interval(flushInterval, flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::flush).subscribeOn(scheduler))
+                .subscribe();
+    }
+
+    @Override
+    public void report(FinishedSpan span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduledFlushes != null) {
+            scheduledFlushes.dispose();
+        }
+        flush();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    synchronized void flush() {
+        List<FinishedSpan> spans = new ArrayList<>(queue.size());
+        queue.drainTo(spans);
+        if (spans.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (FinishedSpan span : spans) {
+                writer.write(objectMapper.writeValueAsString(toJson(span)));
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            logger.error("Failed to write {} spans to {}: {}", spans.size(), file, ex.getMessage(), ex);
+        }
+    }
+
+    private static Map<String, Object> toJson(FinishedSpan span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("parentId", span.getParentId());
+        json.put("spanId", span.getSpanId());
+        json.put("name", span.getName());
+        json.put("kind", span.getKind());
+        json.put("start", span.getStartTimestamp());
+        json.put("durationMicros", span.getDuration().toNanos() / 1000);
+        json.put("tags", span.getTags());
+        if (span.getError() != null) {
+            json.put("error", span.getError().toString());
+        }
+        return json;
+    }
+}
@@ -0,0 +1,119 @@
+package com.calendar.frontendapp.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.web.server.WebSession;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Observations of the authorization code flow. A login spans several requests, so the
+ * trace context of the authorize request is stored in the session together with the
+ * {@code state} it sent to the IdP. The callback carrying the same {@code state}
+ * continues that trace, and the token exchange and its HTTP call become its children.
+ * <p>
+ * The current observation is passed along in the Reactor context under
+ * {@link ObservationThreadLocalAccessor#KEY}, where the instrumented {@code WebClient}
+ * picks it up as the parent of its client observation.
+ */
+public class LoginTracing {
+
+    public static final LoginTracing DISABLED = new LoginTracing(ObservationRegistry.NOOP, Tracer.NOOP, Propagator.NOOP);
+
+    static final String TRACE_ATTRIBUTE = "login_trace";
+
+    private final ObservationRegistry registry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public LoginTracing(ObservationRegistry registry, Tracer tracer, Propagator propagator) {
+        this.registry = registry;
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * Observes the Mono returned by {@code source} as a child of the observation in the
+     * Reactor context. The supplier runs with the observation in scope.
+     */
+    public <T> Mono<T> observe(String name, Supplier<Mono<T>> source) {
+        if (registry.isNoop()) {
+            return Mono.defer(source);
+        }
+        return Mono.deferContextual(context -> {
+            Observation observation = Observation.createNotStarted(name, registry)
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+            return observe(observation, source);
+        });
+    }
+
+    /**
+     * Observes the callback of a login. Continues the trace stored by
+     * {@link #bind(WebSession, String)} when the session holds one for {@code state}.
+     */
+    public <T> Mono<T> observeCallback(String name, WebSession session, String state, Supplier<Mono<T>> source) {
+        if (registry.isNoop()) {
+            return Mono.defer(source);
+        }
+        LoginTraceContext stored = (LoginTraceContext) session.getAttributes().remove(TRACE_ATTRIBUTE);
+        if (stored == null || !stored.state().equals(state)) {
+            return observe(name, source);
+        }
+        return Mono.defer(() -> {
+            Observation observation = Observation.createNotStarted(name, () -> {
+                ReceiverContext<Map<String, String>> receiverContext = new ReceiverContext<>(Map::get, Kind.SERVER);
+                receiverContext.setCarrier(stored.carrier());
+                return receiverContext;
+            }, registry).start();
+            return observe(observation, source);
+        });
+    }
+
+    /**
+     * Stores the trace context of the current observation in the session, keyed by the
+     * {@code state} sent to the IdP.
+     */
+    public void bind(WebSession session, String state) {
+        if (registry.isNoop()) {
+            return;
+        }
+        TraceContext current = tracer.currentTraceContext().context();
+        if (current == null) {
+            return;
+        }
+        Map<String, String> carrier = new HashMap<>();
+        propagator.inject(current, carrier, Map::put);
+        session.getAttributes().put(TRACE_ATTRIBUTE, new LoginTraceContext(state, carrier));
+    }
+
+    private static <T> Mono<T> observe(Observation observation, Supplier<Mono<T>> source) {
+        Mono<T> mono;
+        Observation.Scope scope = observation.openScope();
+        try {
+            mono = source.get();
+        } catch (RuntimeException ex) {
+            observation.error(ex);
+            observation.stop();
+            throw ex;
+        } finally {
+            scope.close();
+        }
+        return mono
+                .doOnError(observation::error)
+                .doFinally(signal -> observation.stop())
+                .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+    }
+
+    private record LoginTraceContext(String state, Map<String, String> carrier) {
+    }
+}
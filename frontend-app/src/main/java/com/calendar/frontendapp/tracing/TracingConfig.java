@@ -0,0 +1,45 @@
+package com.calendar.frontendapp.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class TracingConfig {
+
+    @Value("${frontend.tracing.login.enabled:false}")
+    private boolean loginTracingEnabled;
+
+    @Bean
+    public LoginTracing loginTracing(ObjectProvider<ObservationRegistry> observationRegistry,
+                                     ObjectProvider<Tracer> tracer,
+                                     ObjectProvider<Propagator> propagator) {
+        ObservationRegistry registry = observationRegistry.getIfAvailable();
+        if (!loginTracingEnabled || registry == null) {
+            return LoginTracing.DISABLED;
+        }
+        return new LoginTracing(registry, tracer.getIfAvailable(() -> Tracer.NOOP),
+                propagator.getIfAvailable(() -> Propagator.NOOP));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "frontend.tracing.export.file")
+    public JsonLinesSpanReporter jsonLinesSpanReporter(
+            @Value("${frontend.tracing.export.file}") Path file,
+            @Value("${frontend.tracing.export.queue-size:10000}") int queueSize,
+            @Value("${frontend.tracing.export.flush-interval:1s}") Duration flushInterval,
+            ObjectMapper objectMapper,
+            Scheduler blockingScheduler) {
+        return new JsonLinesSpanReporter(file, objectMapper, queueSize, flushInterval, blockingScheduler);
+    }
+}
@@ -0,0 +1,122 @@
+package com.calendar.frontendapp.warmup;
+
+import com.calendar.frontendapp.security.oauth2.OAuth2AccessTokenResponse;
+import com.calendar.frontendapp.security.oauth2.dpop.DPoPService;
+import com.calendar.frontendapp.web.Pages;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process stand-ins for the work of one login: a Keycloak-like access token signed with
+ * a throwaway key, the token endpoint response and the pages. Nothing leaves the JVM and no
+ * session, cache or registry is touched.
+ */
+class SyntheticLogin {
+
+    private final ReactiveJwtDecoder jwtDecoder;
+    private final DPoPService dPoPService;
+    private final Pages pages;
+    private final String tokenUri;
+    private final String accessToken;
+    private final byte[] tokenResponse;
+
+    SyntheticLogin(DPoPService dPoPService, Pages pages, String clientId, String tokenUri) {
+        this.dPoPService = dPoPService;
+        this.pages = pages;
+        this.tokenUri = tokenUri;
+        KeyPair keyPair = generateKeyPair();
+        this.jwtDecoder = NimbusReactiveJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+        this.accessToken = sign(keyPair, clientId);
+        this.tokenResponse = ("{\"access_token\":\"" + accessToken + "\",\"token_type\":\"Bearer\",\"expires_in\":300,"
+                + "\"refresh_expires_in\":1800,\"refresh_token\":\"" + UUID.randomUUID() + "\","
+                + "\"id_token\":\"" + accessToken + "\",\"not-before-policy\":0,"
+                + "\"session_state\":\"" + UUID.randomUUID() + "\",\"scope\":\"openid profile\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    void decodeJwt() {
+        jwtDecoder.decode(accessToken).block();
+    }
+
+    void decodeTokenResponse() {
+        try {
+            OAuth2AccessTokenResponse.parse(new ByteArrayInputStream(tokenResponse), Instant.now());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    void signDPoP() {
+        dPoPService.generateDPoP("POST", tokenUri, null);
+    }
+
+    void renderHome() {
+        Map<String, String> slots = new HashMap<>();
+        slots.put(Pages.USERNAME, "warmup");
+        slots.put(Pages.ACCESS_TOKEN, accessToken);
+        slots.put(Pages.WELCOME_STYLE, "");
+        slots.put(Pages.SESSION_STARTED, "2024-01-01 00:00:00");
+        slots.put(Pages.CALENDAR_JSON, "null");
+        pages.home(slots);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("RSA key generation not available", ex);
+        }
+    }
+
+    private static String sign(KeyPair keyPair, String clientId) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("https://warmup.invalid/realms/warmup")
+                .subject(UUID.randomUUID().toString())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(1, ChronoUnit.DAYS)))
+                .claim("azp", clientId)
+                .claim("preferred_username", "warmup")
+                .claim("acr", "gold")
+                .claim("sid", UUID.randomUUID().toString())
+                .claim("scope", "openid profile")
+                .claim("resource_access", Map.of(clientId, Map.of("roles", List.of("warmup"))))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .type(JOSEObjectType.JWT)
+                .keyID("warmup")
+                .build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Failed to sign the warm-up token", ex);
+        }
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,43 @@
+package com.calendar.frontendapp.warmup;
+
+import com.calendar.frontendapp.security.oauth2.dpop.DPoPService;
+import com.calendar.frontendapp.web.Pages;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Warms up the login hot paths before the application reports ready, see {@link WarmupRunner}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "frontend.warmup.enabled", havingValue = "true")
+public class WarmupConfig {
+
+    @Value("${spring.oauth2.client.id}")
+    private String clientId;
+
+    @Value("${spring.oauth2.client.token-uri}")
+    private String tokenUri;
+
+    @Value("${frontend.warmup.budget:10s}")
+    private Duration budget;
+
+    @Value("${frontend.warmup.iterations:10000}")
+    private int iterations;
+
+    @Bean
+    public WarmupRunner warmupRunner(DPoPService dPoPService, Pages pages) {
+        SyntheticLogin login = new SyntheticLogin(dPoPService, pages, clientId, tokenUri);
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("jwt-decode", login::decodeJwt);
+        tasks.put("token-response", login::decodeTokenResponse);
+        tasks.put("dpop", login::signDPoP);
+        tasks.put("home", login::renderHome);
+        return new WarmupRunner(tasks, budget, iterations);
+    }
+}
@@ -0,0 +1,100 @@
+package com.calendar.frontendapp.warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Runs synthetic iterations of the login hot paths at startup, so the JIT has compiled
+ * them before the first real logins arrive. Spring Boot reports readiness only after the
+ * application runners returned, so the warm-up delays {@code /actuator/health/readiness}.
+ * <p>
+ * The tasks take turns in short time slices until each reached {@code iterations} or the
+ * {@code budget} is used up. A failing task is logged and dropped; the warm-up never
+ * prevents the application from starting.
+ */
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final long SLICE_NANOS = Duration.ofMillis(20).toNanos();
+
+    private final Map<String, Runnable> tasks;
+    private final Duration budget;
+    private final int iterations;
+
+    /**
+     * @param tasks      the hot paths by name, run in this order
+     * @param budget     wall-clock time the warm-up may take
+     * @param iterations iterations after which a task is considered warm
+     */
+    public WarmupRunner(Map<String, Runnable> tasks, Duration budget, int iterations) {
+        this.tasks = new LinkedHashMap<>(tasks);
+        this.budget = budget;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        List<Progress> pending = new ArrayList<>();
+        tasks.forEach((name, task) -> pending.add(new Progress(name, task)));
+        List<Progress> done = new ArrayList<>();
+
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            for (Progress progress : List.copyOf(pending)) {
+                long sliceEnd = Math.min(System.nanoTime() + SLICE_NANOS, deadline);
+                if (!progress.runUntil(sliceEnd, iterations) || progress.count >= iterations) {
+                    pending.remove(progress);
+                    done.add(progress);
+                }
+            }
+        }
+        done.addAll(pending);
+
+        StringJoiner summary = new StringJoiner(", ");
+        for (Progress progress : done) {
+            summary.add(progress.name + " " + progress.count + (progress.failed ? " (failed)" : ""));
+        }
+        logger.info("Warm-up finished in {} ms: {}", Duration.ofNanos(System.nanoTime() - start).toMillis(), summary);
+    }
+
+    private static final class Progress {
+
+        private final String name;
+        private final Runnable task;
+        private int count;
+        private boolean failed;
+
+        private Progress(String name, Runnable task) {
+            this.name = name;
+            this.task = task;
+        }
+
+        /**
+         * @return {@code false} when the task failed
+         */
+        private boolean runUntil(long sliceEnd, int iterations) {
+            try {
+                do {
+                    task.run();
+                    count++;
+                } while (count < iterations && System.nanoTime() < sliceEnd);
+                return true;
+            } catch (RuntimeException ex) {
+                logger.warn("Warm-up task {} failed after {} iterations, skipping it", name, count, ex);
+                failed = true;
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.calendar.frontendapp.web;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pages rendered once at startup instead of on every request. The login page has no
+ * dynamic content and is kept as immutable bytes; the home page is precompiled into static
+ * chunks and the slots below.
+ */
+public class Pages {
+
+    public static final String USERNAME = "username";
+    public static final String ACCESS_TOKEN = "accessToken";
+    public static final String WELCOME_STYLE = "welcomeStyle";
+    public static final String SESSION_STARTED = "sessionStarted";
+    public static final String CALENDAR_JSON = "calendarJson";
+
+    private final byte[] login;
+    private final String loginEtag;
+    private final PrecompiledPage home;
+
+    public Pages(ITemplateEngine templateEngine, StaticAssets assets) {
+        Context loginContext = new Context(Locale.ROOT);
+        loginContext.setVariable("assets", assets);
+        this.login = templateEngine.process("login", loginContext).getBytes(StandardCharsets.UTF_8);
+        this.loginEtag = "\"" + DigestUtils.md5DigestAsHex(login) + "\"";
+
+        Map<String, UnaryOperator<String>> escapers = Map.of(
+                USERNAME, HtmlUtils::htmlEscape,
+                ACCESS_TOKEN, HtmlUtils::htmlEscape,
+                WELCOME_STYLE, HtmlUtils::htmlEscape,
+                SESSION_STARTED, HtmlUtils::htmlEscape,
+                CALENDAR_JSON, Pages::escapeScriptJson);
+        Context homeContext = new Context(Locale.ROOT);
+        homeContext.setVariable("assets", assets);
+        escapers.keySet().forEach(slot -> homeContext.setVariable(slot, PrecompiledPage.placeholder(slot)));
+        this.home = PrecompiledPage.compile(templateEngine.process("home", homeContext), escapers);
+    }
+
+    public byte[] login() {
+        return login;
+    }
+
+    public String loginEtag() {
+        return loginEtag;
+    }
+
+    /**
+     * Renders the home page with the given slot values, e.g. {@link #USERNAME}.
+     */
+    public byte[] home(Map<String, String> values) {
+        return home.render(values);
+    }
+
+    /**
+     * JSON is a valid script expression, it only must not close the script element or open
+     * a comment in it. {@code <}, {@code >} and {@code &} can only occur inside JSON strings,
+     * where their unicode escapes mean the same.
+     */
+    private static String escapeScriptJson(String json) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < json.length(); i++) {
+            String replacement = switch (json.charAt(i)) {
+                case '<' -> "\\u003c";
+                case '>' -> "\\u003e";
+                case '&' -> "\\u0026";
+                default -> null;
+            };
+            if (replacement != null) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(json.length() + 16).append(json, 0, i);
+                }
+                escaped.append(replacement);
+            } else if (escaped != null) {
+                escaped.append(json.charAt(i));
+            }
+        }
+        return escaped != null ? escaped.toString() : json;
+    }
+}
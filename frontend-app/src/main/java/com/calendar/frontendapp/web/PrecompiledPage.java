@@ -0,0 +1,81 @@
+package com.calendar.frontendapp.web;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A template rendered once ahead of time, split into static chunks and named slots. Only
+ * the slots are evaluated per request; the chunks are written as they are.
+ * <p>
+ * The template is rendered with {@link #placeholder(String)} as value of every slot, so
+ * slot names must survive the template's escaping (letters and digits only).
+ */
+public final class PrecompiledPage {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("__slot_([A-Za-z0-9]+)__");
+
+    private final byte[][] chunks;
+    private final String[] slots;
+    private final Map<String, UnaryOperator<String>> escapers;
+    private final int staticLength;
+
+    private PrecompiledPage(byte[][] chunks, String[] slots, Map<String, UnaryOperator<String>> escapers) {
+        this.chunks = chunks;
+        this.slots = slots;
+        this.escapers = escapers;
+        int length = 0;
+        for (byte[] chunk : chunks) {
+            length += chunk.length;
+        }
+        this.staticLength = length;
+    }
+
+    public static String placeholder(String slot) {
+        return "__slot_" + slot + "__";
+    }
+
+    /**
+     * Splits the rendered template at the placeholders.
+     *
+     * @param rendered the output of the template rendered with placeholders
+     * @param escapers escaping applied to the value of each slot, by slot name
+     */
+    public static PrecompiledPage compile(String rendered, Map<String, UnaryOperator<String>> escapers) {
+        List<byte[]> chunks = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(rendered);
+        int position = 0;
+        while (matcher.find()) {
+            if (!escapers.containsKey(matcher.group(1))) {
+                throw new IllegalArgumentException("No escaper for slot " + matcher.group(1));
+            }
+            chunks.add(rendered.substring(position, matcher.start()).getBytes(StandardCharsets.UTF_8));
+            slots.add(matcher.group(1));
+            position = matcher.end();
+        }
+        chunks.add(rendered.substring(position).getBytes(StandardCharsets.UTF_8));
+        return new PrecompiledPage(chunks.toArray(new byte[0][]), slots.toArray(new String[0]), Map.copyOf(escapers));
+    }
+
+    /**
+     * Writes the page with the given slot values. Missing values render as empty strings.
+     */
+    public byte[] render(Map<String, String> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(staticLength + 256 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.writeBytes(chunks[i]);
+            String value = values.get(slots[i]);
+            if (value != null) {
+                out.writeBytes(escapers.get(slots[i]).apply(value).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        out.writeBytes(chunks[slots.length]);
+        return out.toByteArray();
+    }
+}
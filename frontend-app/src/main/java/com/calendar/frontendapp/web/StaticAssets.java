@@ -0,0 +1,179 @@
+package com.calendar.frontendapp.web;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Registry of the CSS and JS assets, loaded once from the classpath. Every asset is
+ * published under a fingerprinted path containing a hash of its content, e.g.
+ * {@code /assets/css/home.3f2a9c1b7d40.css}, so it can be cached by browsers forever and
+ * a new deployment never serves stale content.
+ * <p>
+ * Text assets are gzip-compressed once at load time. Brotli variants cannot be produced by
+ * the JDK; they are picked up when a precompressed {@code <name>.br} file sits next to the
+ * asset.
+ */
+public class StaticAssets {
+
+    public static final String PATH_PREFIX = "/assets/";
+
+    private static final String BROTLI_SUFFIX = ".br";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final Map<String, Asset> byName = new HashMap<>();
+    private final Map<String, Asset> byPath = new HashMap<>();
+
+    /**
+     * @param location classpath directory of the assets, e.g. {@code classpath:/assets/}
+     */
+    public StaticAssets(String location) {
+        Map<String, byte[]> files = new TreeMap<>();
+        try {
+            String base = new PathMatchingResourcePatternResolver().getResource(location).getURL().toString();
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location + "**/*.*")) {
+                files.put(resource.getURL().toString().substring(base.length()), resource.getContentAsByteArray());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load static assets from " + location, ex);
+        }
+        files.forEach((name, content) -> {
+            if (!name.endsWith(BROTLI_SUFFIX) && !name.endsWith(GZIP_SUFFIX)) {
+                register(name, content, files.get(name + BROTLI_SUFFIX), files.get(name + GZIP_SUFFIX));
+            }
+        });
+    }
+
+    /**
+     * Returns the fingerprinted URL of the asset, e.g. {@code url("css/home.css")}.
+     */
+    public String url(String name) {
+        Asset asset = byName.get(name);
+        if (asset == null) {
+            throw new IllegalArgumentException("Unknown static asset " + name);
+        }
+        return asset.path();
+    }
+
+    /**
+     * Looks up an asset by its fingerprinted request path.
+     *
+     * @return the asset or {@code null}
+     */
+    public Asset find(String path) {
+        return byPath.get(path);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    private void register(String name, byte[] content, byte[] brotli, byte[] gzip) {
+        String hash = DigestUtils.md5DigestAsHex(content);
+        int extension = name.lastIndexOf('.');
+        String path = PATH_PREFIX + name.substring(0, extension) + "." + hash.substring(0, 12) + name.substring(extension);
+        MediaType mediaType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        if (gzip == null && isCompressible(mediaType)) {
+            gzip = gzip(content);
+        }
+        Asset asset = new Asset(path, mediaType,
+                new Variant(content, null, "\"" + hash + "\""),
+                variant(brotli, "br", hash),
+                variant(gzip != null && gzip.length < content.length ? gzip : null, "gzip", hash));
+        byName.put(name, asset);
+        byPath.put(path, asset);
+    }
+
+    private static Variant variant(byte[] content, String encoding, String hash) {
+        return content != null ? new Variant(content, encoding, "\"" + hash + "-" + encoding + "\"") : null;
+    }
+
+    private static boolean isCompressible(MediaType mediaType) {
+        return "text".equals(mediaType.getType())
+                || mediaType.getSubtype().contains("javascript")
+                || mediaType.getSubtype().contains("json")
+                || mediaType.getSubtype().contains("svg");
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param identity the uncompressed content
+     * @param brotli   the precompressed brotli variant, or {@code null}
+     * @param gzip     the gzip variant, or {@code null} when compression does not pay off
+     */
+    public record Asset(String path, MediaType mediaType, Variant identity, Variant brotli, Variant gzip) {
+
+        /**
+         * Picks the smallest variant allowed by the {@code Accept-Encoding} header value.
+         */
+        public Variant select(String acceptEncoding) {
+            if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+                return identity;
+            }
+            if (brotli != null && accepts(acceptEncoding, "br")) {
+                return brotli;
+            }
+            if (gzip != null && accepts(acceptEncoding, "gzip")) {
+                return gzip;
+            }
+            return identity;
+        }
+
+        private static boolean accepts(String acceptEncoding, String encoding) {
+            boolean wildcard = false;
+            for (String element : acceptEncoding.split(",")) {
+                String[] parts = element.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                boolean allowed = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            allowed = Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException ex) {
+                            allowed = false;
+                        }
+                    }
+                }
+                if (coding.equals(encoding)) {
+                    return allowed;
+                }
+                if (coding.equals("*")) {
+                    wildcard = allowed;
+                }
+            }
+            return wildcard;
+        }
+    }
+
+    /**
+     * @param encoding the {@code Content-Encoding}, {@code null} for the identity variant
+     */
+    public record Variant(byte[] content, String encoding, String etag) {
+    }
+}
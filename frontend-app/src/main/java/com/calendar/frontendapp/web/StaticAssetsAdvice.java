@@ -0,0 +1,21 @@
+package com.calendar.frontendapp.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ModelAttribute;
+
+/**
+ * Exposes the {@link StaticAssets} to the templates rendered per request, which link
+ * their stylesheets and scripts through {@code ${assets.url(...)}}.
+ */
+@ControllerAdvice
+public class StaticAssetsAdvice {
+
+    @Autowired
+    private StaticAssets staticAssets;
+
+    @ModelAttribute("assets")
+    public StaticAssets assets() {
+        return staticAssets;
+    }
+}
@@ -0,0 +1,59 @@
+package com.calendar.frontendapp.web;
+
+import com.calendar.frontendapp.web.StaticAssets.Asset;
+import com.calendar.frontendapp.web.StaticAssets.Variant;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.thymeleaf.ITemplateEngine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Configuration
+public class WebConfig {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    @Bean
+    public StaticAssets staticAssets() {
+        return new StaticAssets("classpath:/assets/");
+    }
+
+    @Bean
+    public Pages pages(ITemplateEngine templateEngine, StaticAssets staticAssets) {
+        return new Pages(templateEngine, staticAssets);
+    }
+
+    /**
+     * Serves the fingerprinted assets. Their paths change with their content, so they are
+     * cached as immutable. Compressed variants are chosen by {@code Accept-Encoding}.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> staticAssetRoutes(StaticAssets staticAssets) {
+        return RouterFunctions.route(RequestPredicates.GET(StaticAssets.PATH_PREFIX + "**"), request -> {
+            Asset asset = staticAssets.find(request.path());
+            if (asset == null) {
+                return ServerResponse.notFound().build();
+            }
+            Variant variant = asset.select(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING));
+            return request.checkNotModified(variant.etag())
+                    .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                            .contentType(asset.mediaType())
+                            .cacheControl(IMMUTABLE)
+                            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                            .eTag(variant.etag())
+                            .headers(headers -> {
+                                if (variant.encoding() != null) {
+                                    headers.set(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+                                }
+                            })
+                            .bodyValue(variant.content())));
+        });
+    }
+}
@@ -0,0 +1,276 @@
+// Calendar currently on screen, kept up to date by the live update stream
+let currentCalendar = null;
+let updatesSubscribed = false;
+
+/**
+ * Checks for the "target" query parameter on page load.
+ * If target=calendar, shows the calendar embedded by the server or,
+ * when it is missing, calls callCalendarApi().
+ */
+document.addEventListener('DOMContentLoaded', function() {
+    const params = new URLSearchParams(window.location.search);
+    if (params.get('target') === 'calendar') {
+        if (initialCalendar) {
+            displayCalendar(initialCalendar);
+            const accessToken = document.getElementById('calendar-button-for-data').getAttribute('data-access-token');
+            if (accessToken) {
+                subscribeToUpdates(accessToken);
+            }
+        } else {
+            callCalendarApi();
+        }
+    }
+});
+
+/**
+ * Calls the /api/calendar endpoint with Bearer token authorization.
+ * Retrieves the access token from the button's data attribute.
+ */
+function callCalendarApi() {
+    const calendarButton = document.getElementById('calendar-button-for-data');
+    const accessToken = calendarButton.getAttribute('data-access-token');
+
+    // Validate that access token is available
+    if (!accessToken) {
+        showError('Access token not available. Please log in again.');
+        console.error('Access token is missing from the page context');
+        return;
+    }
+
+    // Show loading indicator
+    showLoading(true);
+    hideError();
+
+    // Disable button during request
+    calendarButton.disabled = true;
+
+    // Make fetch request with Bearer token
+    fetch('/api/calendar', {
+        method: 'GET',
+        headers: {
+            'Authorization': 'Bearer ' + accessToken,
+            'Content-Type': 'application/json',
+            'Accept': 'application/json'
+        },
+        credentials: 'same-origin'  // Include cookies for session management
+    })
+    .then(response => {
+        if (!response.ok) {
+            // Handle HTTP errors
+            return response.text().then(text => {
+                throw new Error(`HTTP ${response.status}: ${text || response.statusText}`);
+            });
+        }
+        return response.json();
+    })
+    .then(data => {
+        console.log('Calendar API response:', data);
+        showLoading(false);
+        displayCalendar(data);
+        subscribeToUpdates(accessToken);
+    })
+    .catch(error => {
+        console.error('Error calling calendar API:', error);
+        showLoading(false);
+        showError('Failed to load calendar: ' + error.message);
+    })
+    .finally(() => {
+        // Re-enable button
+        calendarButton.disabled = false;
+    });
+}
+
+/**
+ * Shows or hides the loading indicator.
+ * @param {boolean} show - true to show, false to hide
+ */
+function showLoading(show) {
+    const loadingDiv = document.getElementById('loading');
+    if (show) {
+        loadingDiv.classList.add('show');
+    } else {
+        loadingDiv.classList.remove('show');
+    }
+}
+
+/**
+ * Displays an error message to the user.
+ * @param {string} message - The error message to display
+ * @param {string} type - 'error' or 'success' (optional)
+ */
+function showError(message, type = 'error') {
+    const errorDiv = document.getElementById('error');
+    errorDiv.textContent = message;
+    errorDiv.classList.add('show');
+
+    if (type === 'success') {
+        errorDiv.style.backgroundColor = '#d4edda';
+        errorDiv.style.color = '#155724';
+        errorDiv.style.borderColor = '#c3e6cb';
+    } else {
+        errorDiv.style.backgroundColor = '#f8d7da';
+        errorDiv.style.color = '#721c24';
+        errorDiv.style.borderColor = '#f5c6cb';
+    }
+}
+
+/**
+ * Hides the error message.
+ */
+function hideError() {
+    const errorDiv = document.getElementById('error');
+    errorDiv.classList.remove('show');
+}
+
+/**
+ * Goes back to the welcome section from the calendar view.
+ */
+function goBack() {
+    const welcomeSection = document.getElementById('welcome-section');
+    const calendarContent = document.getElementById('calendar-content');
+
+    welcomeSection.style.display = 'block';
+    calendarContent.classList.remove('show');
+}
+
+/**
+ * Displays the calendar data dynamically.
+ * @param {Object} calendarData - The calendar data from the API
+ */
+function displayCalendar(calendarData) {
+    console.log('Displaying calendar:', calendarData);
+    currentCalendar = calendarData;
+
+    // Update calendar header with dates and week number
+    const weekStartDateEl = document.querySelector('.week-range');
+    if (weekStartDateEl) {
+        weekStartDateEl.innerHTML =
+            `<span>${calendarData.weekStartDate}</span> to <span>${calendarData.weekEndDate}</span> (Week <span>${calendarData.weekNumber}</span>)`;
+    }
+
+    // Build calendar grid with days
+    const calendarGrid = document.querySelector('.calendar-grid');
+    if (calendarGrid && calendarData.days) {
+        calendarGrid.innerHTML = '';
+
+        calendarData.days.forEach(day => {
+            const dayElement = document.createElement('div');
+            dayElement.className = 'calendar-day';
+
+            // Add classes for today and weekend
+            if (day.isToday) {
+                dayElement.classList.add('today');
+            }
+            if (day.isWeekend) {
+                dayElement.classList.add('weekend');
+            }
+
+            dayElement.innerHTML = `
+                <div class="day-name">${day.dayName}</div>
+                <div class="day-number">${day.dayOfMonth}</div>
+                <div style="font-size: 12px; color: #999;">${day.date}</div>
+            `;
+
+            eventsOn(day, calendarData.events || []).forEach(event => {
+                const eventElement = document.createElement('div');
+                eventElement.className = 'day-event';
+                eventElement.textContent = event.title;
+                eventElement.title = event.title;
+                dayElement.appendChild(eventElement);
+            });
+
+            calendarGrid.appendChild(dayElement);
+        });
+    }
+
+    // Hide welcome section and show calendar
+    const welcomeSection = document.getElementById('welcome-section');
+    const calendarContent = document.getElementById('calendar-content');
+
+    welcomeSection.style.display = 'none';
+    calendarContent.classList.add('show');
+}
+
+/**
+ * Returns the events overlapping the given day in the browser's time zone.
+ */
+function eventsOn(day, events) {
+    const dayStart = new Date(day.date + 'T00:00:00');
+    const dayEnd = new Date(dayStart.getFullYear(), dayStart.getMonth(), dayStart.getDate() + 1);
+    return events.filter(event => new Date(event.start) < dayEnd && new Date(event.end) > dayStart);
+}
+
+/**
+ * Applies a delta from /api/calendar/updates to the calendar on screen.
+ */
+function applyDelta(delta) {
+    if (!currentCalendar) {
+        return;
+    }
+    const events = (currentCalendar.events || []).filter(event => event.id !== delta.eventId);
+    if (delta.type === 'created' && delta.event) {
+        events.push(delta.event);
+        events.sort((a, b) => new Date(a.start) - new Date(b.start));
+    }
+    currentCalendar.events = events;
+    displayCalendar(currentCalendar);
+}
+
+/**
+ * Listens to /api/calendar/updates and applies the pushed changes instead of refetching.
+ * EventSource cannot send an Authorization header, so the stream is read with fetch.
+ * The server ends idle streams; the client reconnects after a short delay.
+ */
+function subscribeToUpdates(accessToken) {
+    if (updatesSubscribed) {
+        return;
+    }
+    updatesSubscribed = true;
+
+    const reconnect = () => {
+        updatesSubscribed = false;
+        setTimeout(() => subscribeToUpdates(accessToken), 3000);
+    };
+
+    fetch('/api/calendar/updates', {
+        headers: {
+            'Authorization': 'Bearer ' + accessToken,
+            'Accept': 'text/event-stream'
+        },
+        credentials: 'same-origin'
+    })
+    .then(response => {
+        if (!response.ok || !response.body) {
+            // e.g. an expired token, do not retry
+            console.error('Calendar updates unavailable: HTTP ' + response.status);
+            return;
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        const read = () => reader.read().then(({ value, done }) => {
+            if (done) {
+                reconnect();
+                return;
+            }
+            buffer += value;
+            let boundary;
+            while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                const message = buffer.substring(0, boundary);
+                buffer = buffer.substring(boundary + 2);
+                const data = message.split('\n')
+                    .filter(line => line.startsWith('data:'))
+                    .map(line => line.substring(5))
+                    .join('\n');
+                if (data) {
+                    applyDelta(JSON.parse(data));
+                }
+            }
+            return read();
+        });
+        return read();
+    })
+    .catch(error => {
+        console.error('Calendar update stream failed:', error);
+        reconnect();
+    });
+}
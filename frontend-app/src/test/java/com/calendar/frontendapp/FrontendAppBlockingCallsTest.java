@@ -0,0 +1,260 @@
+package com.calendar.frontendapp;
+
+import com.calendar.frontendapp.diagnostics.BlockingCallDetector;
+import com.calendar.frontendapp.event.CalendarEvent;
+import com.calendar.frontendapp.event.NewCalendarEvent;
+import com.calendar.frontendapp.web.StaticAssets;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.FluxExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Boots the application the way {@link FrontendAppApplication#main} does, with
+ * {@link BlockingCallDetector} in {@code fail} mode, and runs a login with step-up to the
+ * calendar followed by calls to every route of the calendar API, the back-channel logout and
+ * the static assets. Any blocking call on the event loop or a non-blocking scheduler fails the
+ * request it happened in and is counted by the detector.
+ * <p>
+ * The IdP is replaced by {@link TestIdp}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        useMainMethod = SpringBootTest.UseMainMethod.ALWAYS,
+        properties = {
+                "frontend.diagnostics.blocking-calls.enabled=true",
+                "frontend.diagnostics.blocking-calls.mode=fail",
+                "management.server.port=0"
+        })
+class FrontendAppBlockingCallsTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SERVER_SENT_EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private static final Duration STREAM_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final TestIdp idp = TestIdp.start();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private BlockingCallDetector blockingCallDetector;
+
+    @Autowired
+    private StaticAssets staticAssets;
+
+    @MockBean
+    private ReactiveJwtDecoder reactiveJwtDecoder;
+
+    @DynamicPropertySource
+    static void idpProperties(DynamicPropertyRegistry registry) {
+        idp.register(registry);
+    }
+
+    @AfterAll
+    static void stopIdp() {
+        idp.close();
+    }
+
+    @BeforeEach
+    void decodeTokens() {
+        when(reactiveJwtDecoder.decode(anyString())).thenReturn(Mono.just(TestIdp.token()));
+    }
+
+    @Test
+    void loginAndCalendarRoutesDoNotBlock() {
+        webTestClient.get().uri("/login")
+                .exchange()
+                .expectStatus().isOk();
+
+        String session = TestIdp.login(webTestClient);
+
+        // the step-up is satisfied by the login
+        webTestClient.get().uri("/calendar")
+                .cookie("SESSION", session)
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().location("/home?target=calendar");
+
+        webTestClient.get().uri("/home?target=calendar")
+                .cookie("SESSION", session)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/calendar")
+                .cookie("SESSION", session)
+                .headers(headers -> headers.setBearerAuth(TestIdp.ACCESS_TOKEN))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/calendar?year=2026&week=3")
+                .cookie("SESSION", session)
+                .headers(headers -> headers.setBearerAuth(TestIdp.ACCESS_TOKEN))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(blockingCallDetector.getBlockingCallCount()).isZero();
+    }
+
+    @Test
+    void exportDoesNotBlock() {
+        WebTestClient api = api(TestIdp.login(webTestClient));
+
+        String ndjson = api.get().uri("/api/calendar/export?from=2026-01-05&to=2026-01-11")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        assertThat(ndjson).isNotNull();
+        assertThat(ndjson.lines()).hasSize(7);
+
+        List<ServerSentEvent<String>> events = api.get().uri("/api/calendar/export?from=2026-01-05&to=2026-01-11")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(SERVER_SENT_EVENT)
+                .getResponseBody()
+                .collectList()
+                .block(STREAM_TIMEOUT);
+        assertThat(events).hasSize(7);
+
+        assertThat(blockingCallDetector.getBlockingCallCount()).isZero();
+    }
+
+    @Test
+    void eventChangesAndUpdatesDoNotBlock() {
+        WebTestClient api = api(TestIdp.login(webTestClient));
+
+        FluxExchangeResult<ServerSentEvent<String>> updates = api.get().uri("/api/calendar/updates")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(SERVER_SENT_EVENT);
+        Flux<String> deltas = updates.getResponseBody()
+                .filter(event -> event.event() != null)
+                .map(ServerSentEvent::event)
+                .take(2)
+                .cache();
+        // subscribed before the changes, so the broadcast of both reaches the stream
+        deltas.subscribe();
+
+        Instant start = Instant.parse("2026-01-06T09:00:00Z");
+        CalendarEvent event = api.post().uri("/api/calendar/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new NewCalendarEvent("Standup", start, start.plus(Duration.ofMinutes(15))))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(CalendarEvent.class)
+                .returnResult().getResponseBody();
+        assertThat(event).isNotNull();
+
+        api.delete().uri("/api/calendar/events/{id}", event.id())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertThat(deltas.collectList().block(STREAM_TIMEOUT)).containsExactly("created", "deleted");
+        assertThat(blockingCallDetector.getBlockingCallCount()).isZero();
+    }
+
+    @Test
+    void binaryFormatsDoNotBlock() {
+        WebTestClient api = api(TestIdp.login(webTestClient));
+
+        for (MediaType mediaType : List.of(MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"))) {
+            api.get().uri("/api/calendar/month?year=2026&month=1")
+                    .accept(mediaType)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(mediaType);
+
+            api.get().uri("/api/calendar/range?from=2026-01-05&to=2026-01-18")
+                    .accept(mediaType)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(mediaType);
+        }
+
+        assertThat(blockingCallDetector.getBlockingCallCount()).isZero();
+    }
+
+    @Test
+    void backChannelLogoutDoesNotBlock() {
+        TestIdp.login(webTestClient);
+        Instant now = Instant.now();
+        Jwt logoutToken = Jwt.withTokenValue("logout-token")
+                .header("alg", "RS256")
+                .issuer("http://idp.test/realms/IBM")
+                .audience(List.of("frontend-app"))
+                .subject(TestIdp.SUBJECT)
+                .claim("sid", TestIdp.SID)
+                .claim("events", Map.of("http://schemas.openid.net/event/backchannel-logout", Map.of()))
+                .jti("logout-1")
+                .issuedAt(now)
+                .build();
+        when(reactiveJwtDecoder.decode("logout-token")).thenReturn(Mono.just(logoutToken));
+
+        webTestClient.post().uri("/oauth2/backchannel-logout")
+                .body(BodyInserters.fromFormData("logout_token", "logout-token"))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(blockingCallDetector.getBlockingCallCount()).isZero();
+    }
+
+    @Test
+    void staticAssetsDoNotBlock() {
+        String etag = webTestClient.get().uri(staticAssets.url("css/home.css"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(byte[].class)
+                .getResponseHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        webTestClient.get().uri(staticAssets.url("css/home.css"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        assertThat(blockingCallDetector.getBlockingCallCount()).isZero();
+    }
+
+    /**
+     * @return a client sending the session cookie and the access token of the login
+     */
+    private WebTestClient api(String session) {
+        return webTestClient.mutate()
+                .defaultCookie("SESSION", session)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TestIdp.ACCESS_TOKEN)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.calendar.frontendapp;
+
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanReporter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a login with login tracing enabled and every login sampled, and checks that the
+ * authorize request and the callback after the redirect through the IdP end up in one trace.
+ */
+@AutoConfigureObservability(metrics = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "frontend.tracing.login.enabled=true",
+                "management.tracing.sampling.probability=1.0",
+                "management.server.port=0"
+        })
+class LoginTraceTest {
+
+    private static final TestIdp idp = TestIdp.start();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private Queue<FinishedSpan> finishedSpans;
+
+    @MockBean
+    private ReactiveJwtDecoder reactiveJwtDecoder;
+
+    @DynamicPropertySource
+    static void idpProperties(DynamicPropertyRegistry registry) {
+        idp.register(registry);
+    }
+
+    @AfterAll
+    static void stopIdp() {
+        idp.close();
+    }
+
+    @Test
+    void authorizeAndCallbackShareOneTrace() {
+        when(reactiveJwtDecoder.decode(anyString())).thenReturn(Mono.just(TestIdp.token()));
+
+        TestIdp.login(webTestClient);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(finishedSpans)
+                .extracting(FinishedSpan::getName)
+                .contains("login.authorize", "login.callback", "login.token.exchange"));
+        List<String> traceIds = finishedSpans.stream()
+                .filter(span -> span.getName().startsWith("login."))
+                .map(FinishedSpan::getTraceId)
+                .distinct()
+                .toList();
+        assertThat(traceIds).hasSize(1);
+    }
+
+    @TestConfiguration
+    static class SpanCollector {
+
+        @Bean
+        Queue<FinishedSpan> finishedSpans() {
+            return new ConcurrentLinkedQueue<>();
+        }
+
+        @Bean
+        SpanReporter collectingSpanReporter(Queue<FinishedSpan> finishedSpans) {
+            return finishedSpans::add;
+        }
+    }
+}
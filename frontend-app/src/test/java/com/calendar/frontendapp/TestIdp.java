@@ -0,0 +1,122 @@
+package com.calendar.frontendapp;
+
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The token endpoint of the IdP served by a local {@link HttpServer}. The access and ID
+ * tokens it issues are meant to be decoded by a mocked {@link ReactiveJwtDecoder} returning
+ * {@link #token()}. The authorization endpoint is never called, the browser redirect to it
+ * is only read for its {@code state}.
+ */
+final class TestIdp implements AutoCloseable {
+
+    static final String ACCESS_TOKEN = "access-token";
+    static final String SID = "session-1";
+    static final String SUBJECT = "alice";
+
+    private final HttpServer server;
+
+    private TestIdp(HttpServer server) {
+        this.server = server;
+    }
+
+    static TestIdp start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/realms/IBM/protocol/openid-connect/token", exchange -> {
+                byte[] body = ("{\"access_token\":\"" + ACCESS_TOKEN + "\",\"token_type\":\"Bearer\",\"expires_in\":300,"
+                        + "\"id_token\":\"id-token\",\"scope\":\"openid\"}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return new TestIdp(server);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.oauth2.client.authorization-uri", () -> "http://idp.test/realms/IBM/protocol/openid-connect/auth");
+        registry.add("spring.oauth2.client.token-uri",
+                () -> "http://localhost:" + server.getAddress().getPort() + "/realms/IBM/protocol/openid-connect/token");
+    }
+
+    /**
+     * @return the claims of both the access and the ID token, at acr {@code gold} with the
+     *         role the application checks
+     */
+    static Jwt token() {
+        Instant now = Instant.now();
+        return Jwt.withTokenValue(ACCESS_TOKEN)
+                .header("alg", "RS256")
+                .subject(SUBJECT)
+                .claim("name", "Alice")
+                .claim("azp", "frontend-app")
+                .claim("scope", "openid")
+                .claim("acr", "gold")
+                .claim("auth_time", now)
+                .claim("sid", SID)
+                .claim("resource_access", Map.of("frontend-app", Map.of("roles", List.of("my-role"))))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .build();
+    }
+
+    /**
+     * Logs in at acr {@code gold} with the calendar as target page.
+     *
+     * @return the session cookie holding the access token
+     */
+    static String login(WebTestClient webTestClient) {
+        EntityExchangeResult<Void> authorize = webTestClient.post().uri("/oauth2/authorize?acr=gold&targetPage=calendar")
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .expectBody().isEmpty();
+        ResponseCookie sessionCookie = authorize.getResponseCookies().getFirst("SESSION");
+        assertThat(sessionCookie).isNotNull();
+        String session = sessionCookie.getValue();
+        URI authorizationUrl = authorize.getResponseHeaders().getLocation();
+        assertThat(authorizationUrl).hasHost("idp.test");
+        String state = URLDecoder.decode(UriComponentsBuilder.fromUri(authorizationUrl).build()
+                .getQueryParams().getFirst("state"), StandardCharsets.UTF_8);
+
+        webTestClient.get().uri(uri -> uri.path("/oauth2/callback")
+                        .queryParam("code", "code")
+                        .queryParam("state", "{state}")
+                        .build(state))
+                .cookie("SESSION", session)
+                .exchange()
+                .expectStatus().is3xxRedirection()
+                .expectHeader().location("/home?target=calendar");
+        return session;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}